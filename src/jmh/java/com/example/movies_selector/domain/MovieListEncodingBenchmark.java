@@ -0,0 +1,58 @@
+package com.example.movies_selector.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode time of a movie list as JSON and in each {@link MovieListEncoding}. The payload size of the
+ * last encoding is reported as the {@code payloadBytes} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MovieListEncodingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int movies;
+
+    @Param({"JSON", "CBOR", "SMILE", "COLUMNAR"})
+    String format;
+
+    private List<MovieDto> list;
+
+    private ObjectWriter jsonWriter;
+
+    private MovieListEncoding encoding;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long payloadBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Status[] statuses = Status.values();
+        list = new ArrayList<>(movies);
+        for (int i = 0; i < movies; i++) {
+            list.add(new MovieDto((long) i + 1, "The Movie Number " + i, String.valueOf(1950 + i % 70),
+                    (80 + i % 100) + " min", statuses[i % statuses.length].toString(), String.valueOf((i % 100) / 10.0), 0L));
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        jsonWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, MovieDto.class));
+        encoding = format.equals("JSON") ? null : MovieListEncoding.valueOf(format);
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws IOException {
+        byte[] bytes = encoding == null ? jsonWriter.writeValueAsBytes(list) : encoding.encode(list);
+        payload.payloadBytes = bytes.length;
+        return bytes;
+    }
+}
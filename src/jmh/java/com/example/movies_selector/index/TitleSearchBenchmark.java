@@ -0,0 +1,87 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.TitleSearchHit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build time and query latency of the title search structure. Run with -prof gc for allocation
+ * rates; sample mode reports the p99 the search endpoint is held to.
+ */
+@State(Scope.Benchmark)
+public class TitleSearchBenchmark {
+
+    private static final String[] WORDS = {"the", "matrix", "return", "king", "night", "dark", "star", "wars", "lost",
+            "city", "love", "story", "last", "man", "house", "dead", "blue", "river", "game", "heat"};
+
+    private static final int QUERIES = 1024;
+
+    @Param({"100000", "1000000"})
+    int titles;
+
+    private String[] catalogue;
+
+    private TitleTrigramIndex index;
+
+    private final String[] prefixQueries = new String[QUERIES];
+
+    private final String[] typoQueries = new String[QUERIES];
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        catalogue = new String[titles];
+        for (int i = 0; i < titles; i++) {
+            catalogue[i] = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+        }
+        index = build();
+        for (int i = 0; i < QUERIES; i++) {
+            String title = catalogue[random.nextInt(titles)];
+            prefixQueries[i] = title.substring(0, Math.min(title.length(), 3 + random.nextInt(6)));
+            typoQueries[i] = swapTwoLetters(title, random);
+        }
+    }
+
+    private TitleTrigramIndex build() {
+        TitleTrigramIndex built = new TitleTrigramIndex();
+        for (int i = 0; i < catalogue.length; i++) {
+            built.put(i + 1, catalogue[i]);
+        }
+        return built;
+    }
+
+    private static String swapTwoLetters(String title, Random random) {
+        char[] chars = title.toCharArray();
+        int at = random.nextInt(chars.length - 1);
+        char swapped = chars[at];
+        chars[at] = chars[at + 1];
+        chars[at + 1] = swapped;
+        return new String(chars);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TitleTrigramIndex buildIndex() {
+        return build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TitleSearchHit> prefixSearch() {
+        return index.search(prefixQueries[next++ & (QUERIES - 1)], 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<TitleSearchHit> typoSearch() {
+        return index.search(typoQueries[next++ & (QUERIES - 1)], 10);
+    }
+}
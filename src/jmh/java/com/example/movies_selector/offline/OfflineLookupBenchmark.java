@@ -0,0 +1,116 @@
+package com.example.movies_selector.offline;
+
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import com.example.movies_selector.domain.TitleNormalizer;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Offline index lookups against the remote path. The remote path talks to a stub on localhost, so it
+ * is a lower bound of a real OMDB call: no network latency, only HTTP and JSON overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OfflineLookupBenchmark {
+
+    private static final int KEYS = 1024;
+
+    @Param({"100000", "1000000"})
+    int titles;
+
+    private Path directory;
+
+    private OfflineMovieIndex index;
+
+    private HttpServer omdbStub;
+
+    private RestTemplate restTemplate;
+
+    private URI stubUri;
+
+    private final String[] rawTitles = new String[KEYS];
+
+    private final String[] normalizedTitles = new String[KEYS];
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("offline-index-benchmark");
+        Path dumps = Files.createDirectories(directory.resolve("dumps"));
+        try (BufferedWriter writer = Files.newBufferedWriter(dumps.resolve("dump.tsv"), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < titles; i++) {
+                writer.write("The Movie Number " + i + "\t" + (1950 + i % 70) + "\t" + (i % 100) / 10.0 + "\t" + (80 + i % 90) + "\n");
+            }
+        }
+        index = new OfflineMovieIndex(directory.resolve("movies.idx").toString(), dumps.toString(), new SimpleMeterRegistry());
+        index.open();
+
+        Random random = new Random(42);
+        for (int i = 0; i < KEYS; i++) {
+            rawTitles[i] = "The  Movie Number " + random.nextInt(titles);
+            normalizedTitles[i] = TitleNormalizer.normalize(rawTitles[i]);
+        }
+
+        byte[] body = "{\"Title\":\"The Movie Number 1\",\"Year\":\"1951\",\"imdbRating\":\"0.1\",\"Runtime\":\"81 min\",\"Response\":\"True\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        omdbStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        omdbStub.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        omdbStub.start();
+        stubUri = URI.create("http://localhost:" + omdbStub.getAddress().getPort() + "/?t=The+Movie+Number+1");
+        restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        omdbStub.stop(0);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void offlineLookupNormalized(Blackhole blackhole) {
+        blackhole.consume(index.lookup(normalizedTitles[next++ & (KEYS - 1)]));
+    }
+
+    @Benchmark
+    public void offlineLookupWithNormalization(Blackhole blackhole) {
+        blackhole.consume(index.lookup(TitleNormalizer.normalize(rawTitles[next++ & (KEYS - 1)])));
+    }
+
+    @Benchmark
+    public void offlineMiss(Blackhole blackhole) {
+        blackhole.consume(index.lookup("not in the index"));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MovieInfoOMDBDto remoteLookup() {
+        return restTemplate.getForObject(stubUri, MovieInfoOMDBDto.class);
+    }
+}
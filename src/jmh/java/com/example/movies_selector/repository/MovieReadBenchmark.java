@@ -0,0 +1,91 @@
+package com.example.movies_selector.repository;
+
+import com.example.movies_selector.MoviesSelectorApplication;
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieCriteria;
+import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MovieSort;
+import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.mapper.MoviesMapper;
+import com.example.movies_selector.service.MovieBatchWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the full list and one page as entities mapped to {@link MovieDto} against reading the same
+ * columns through the constructor projections, on in-memory H2. Run with the gc profiler to compare
+ * the allocation per operation as well as the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MovieReadBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000", "10000"})
+    int movies;
+
+    private ConfigurableApplicationContext context;
+
+    private MovieRepository movieRepository;
+
+    private MoviesMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MoviesSelectorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:movie-read-" + movies,
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.database=h2",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--apikey=benchmark");
+        movieRepository = context.getBean(MovieRepository.class);
+        mapper = context.getBean(MoviesMapper.class);
+
+        List<Movie> seed = new ArrayList<>(movies);
+        for (int i = 0; i < movies; i++) {
+            Movie movie = new Movie("Benchmark Movie " + i);
+            movie.setStatus(Status.values()[i % Status.values().length]);
+            movie.setYear(String.valueOf(1950 + i % 70));
+            movie.setImdbStatus(String.valueOf((i % 100) / 10.0));
+            movie.setDuration((80 + i % 100) + " min");
+            seed.add(movie);
+        }
+        context.getBean(MovieBatchWriter.class).insertAll(seed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MovieDto> listEntities() {
+        return mapper.mapToMovieDtoList(movieRepository.findAll());
+    }
+
+    @Benchmark
+    public List<MovieDto> listProjection() {
+        return movieRepository.findAllDtos();
+    }
+
+    @Benchmark
+    public List<MovieDto> pageEntities() {
+        return mapper.mapToMovieDtoList(movieRepository.findPage(MovieCriteria.any(), MovieSort.RATING, null, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<MovieDto> pageProjection() {
+        return mapper.mapRowsToMovieDtoList(movieRepository.findPageRows(MovieCriteria.any(), MovieSort.RATING, null, PAGE_SIZE));
+    }
+}
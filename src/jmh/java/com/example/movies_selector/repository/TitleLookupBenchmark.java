@@ -0,0 +1,95 @@
+package com.example.movies_selector.repository;
+
+import com.example.movies_selector.domain.TitleNormalizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title lookup by UPPER(TITLE) = UPPER(?), as derived from findByTitleEqualsIgnoreCase, against the
+ * indexed NORMALIZED_TITLE column, on an in-memory H2 table shaped like MOVIES.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TitleLookupBenchmark {
+
+    private static final int KEYS = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    int movies;
+
+    private Connection connection;
+
+    private PreparedStatement ignoreCaseLookup;
+
+    private PreparedStatement normalizedLookup;
+
+    private final String[] requestedTitles = new String[KEYS];
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:title-lookup-" + movies);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE MOVIES (ID BIGINT PRIMARY KEY, TITLE VARCHAR(255), NORMALIZED_TITLE VARCHAR(255), PRODUCTION_YEAR VARCHAR(255))");
+            statement.execute("CREATE UNIQUE INDEX UK_MOVIES_NORMALIZED_TITLE_YEAR ON MOVIES (NORMALIZED_TITLE, PRODUCTION_YEAR)");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO MOVIES VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < movies; i++) {
+                String title = "The Movie Number " + i;
+                insert.setLong(1, i + 1);
+                insert.setString(2, title);
+                insert.setString(3, TitleNormalizer.normalize(title));
+                insert.setString(4, String.valueOf(1950 + i % 70));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        ignoreCaseLookup = connection.prepareStatement("SELECT ID FROM MOVIES WHERE UPPER(TITLE) = UPPER(?)");
+        normalizedLookup = connection.prepareStatement("SELECT ID FROM MOVIES WHERE NORMALIZED_TITLE = ? ORDER BY ID FETCH FIRST 1 ROWS ONLY");
+
+        Random random = new Random(42);
+        for (int i = 0; i < KEYS; i++) {
+            requestedTitles[i] = "the movie NUMBER " + random.nextInt(movies);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long ignoreCaseScan() throws SQLException {
+        ignoreCaseLookup.setString(1, requestedTitles[next++ & (KEYS - 1)]);
+        return firstId(ignoreCaseLookup);
+    }
+
+    @Benchmark
+    public long normalizedIndexLookup() throws SQLException {
+        normalizedLookup.setString(1, TitleNormalizer.normalize(requestedTitles[next++ & (KEYS - 1)]));
+        return firstId(normalizedLookup);
+    }
+
+    private long firstId(PreparedStatement lookup) throws SQLException {
+        try (ResultSet resultSet = lookup.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.MoviesSelectorApplication;
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.repository.MovieRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second for the row-by-row save path used by saveByTitle, one saveAll call, and
+ * {@link MovieBatchWriter}, against in-memory H2 with JDBC batching and the pooled id allocator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(MovieInsertBenchmark.ROWS)
+public class MovieInsertBenchmark {
+
+    static final int ROWS = 5_000;
+
+    private ConfigurableApplicationContext context;
+
+    private MovieRepository movieRepository;
+
+    private MovieBatchWriter movieBatchWriter;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MoviesSelectorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:movie-insert",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.database=h2",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--apikey=benchmark");
+        movieRepository = context.getBean(MovieRepository.class);
+        movieBatchWriter = context.getBean(MovieBatchWriter.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE MOVIES");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void saveEachRow() {
+        for (Movie movie : nextMovies()) {
+            movieRepository.save(movie);
+        }
+    }
+
+    @Benchmark
+    public void saveAllInOneCall() {
+        movieRepository.saveAll(nextMovies());
+    }
+
+    @Benchmark
+    public void batchWriter() {
+        movieBatchWriter.insertAll(nextMovies());
+    }
+
+    private List<Movie> nextMovies() {
+        List<Movie> movies = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Movie movie = new Movie("Benchmark Movie " + next++);
+            movie.setStatus(Status.WAITING_LIST);
+            movie.setYear(String.valueOf(1950 + i % 70));
+            movies.add(movie);
+        }
+        return movies;
+    }
+}
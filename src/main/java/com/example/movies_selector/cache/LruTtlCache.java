@@ -0,0 +1,178 @@
+package com.example.movies_selector.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Size-bounded, access-ordered cache where every entry carries its own expiry. A weigher optionally
+ * bounds the total weight as well, evicting the least recently used entries first.
+ */
+public class LruTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public LruTtlCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    public LruTtlCache(int maxSize, Clock clock) {
+        this(maxSize, Long.MAX_VALUE, value -> 0, clock);
+    }
+
+    public LruTtlCache(int maxSize, long maxWeight, ToLongFunction<? super V> weigher) {
+        this(maxSize, maxWeight, weigher, Clock.systemUTC());
+    }
+
+    public LruTtlCache(int maxSize, long maxWeight, ToLongFunction<? super V> weigher, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruTtlCache.this.maxSize) {
+                    weight -= eldest.getValue().weight;
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            remove(key);
+            expirations.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value, Duration ttl) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            remove(key);
+            return;
+        }
+        long entryWeight = weigher.applyAsLong(value);
+        Entry<V> previous = entries.put(key, new Entry<>(value, clock.millis() + ttl.toMillis(), entryWeight));
+        weight += entryWeight - (previous == null ? 0 : previous.weight);
+        trimToWeight();
+    }
+
+    /**
+     * Weighs an entry again after its value has grown or shrunk in place.
+     */
+    public synchronized void reweigh(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        long entryWeight = weigher.applyAsLong(entry.value);
+        entries.put(key, new Entry<>(entry.value, entry.expiresAt, entryWeight));
+        weight += entryWeight - entry.weight;
+        trimToWeight();
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int purgeExpired() {
+        long now = clock.millis();
+        int purged = 0;
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next();
+            if (entry.expiresAt <= now) {
+                iterator.remove();
+                weight -= entry.weight;
+                purged++;
+            }
+        }
+        expirations.add(purged);
+        return purged;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long expirationCount() {
+        return expirations.sum();
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    // least recently used first, down to and including the newest entry if it alone is too heavy
+    private void trimToWeight() {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().weight;
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt, long weight) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.movies_selector.cache;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieChangedEvent;
+import com.example.movies_selector.domain.MoviesBulkUpdatedEvent;
+import com.example.movies_selector.domain.TitleNormalizer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Movies by id, plus normalized title to id, invalidated from {@link MovieChangedEvent}s and
+ * {@link MoviesBulkUpdatedEvent}s after each commit. Callers get their own copy of a cached movie.
+ * A load that started before an invalidation is not cached, so a slow read cannot put back a
+ * movie that a concurrent write has just replaced.
+ */
+@Component
+public class MovieCache {
+
+    private final LruTtlCache<Long, Movie> byId;
+
+    private final LruTtlCache<String, Long> idByTitle;
+
+    private final Duration ttl;
+
+    private final Object writeLock = new Object();
+
+    private long generation;
+
+    @Autowired
+    public MovieCache(MeterRegistry meterRegistry,
+                      @Value("${movies.entity-cache.max-size:10000}") int maxSize,
+                      @Value("${movies.entity-cache.ttl:10m}") Duration ttl) {
+        this.byId = new LruTtlCache<>(maxSize);
+        this.idByTitle = new LruTtlCache<>(maxSize);
+        this.ttl = ttl;
+        register(meterRegistry, "id", byId);
+        register(meterRegistry, "title", idByTitle);
+    }
+
+    private static void register(MeterRegistry meterRegistry, String key, LruTtlCache<?, ?> cache) {
+        FunctionCounter.builder("movies.entity-cache.hits", cache, LruTtlCache::hitCount).tag("key", key).register(meterRegistry);
+        FunctionCounter.builder("movies.entity-cache.misses", cache, LruTtlCache::missCount).tag("key", key).register(meterRegistry);
+        FunctionCounter.builder("movies.entity-cache.evictions", cache, LruTtlCache::evictionCount).tag("key", key).register(meterRegistry);
+        FunctionCounter.builder("movies.entity-cache.expirations", cache, LruTtlCache::expirationCount).tag("key", key).register(meterRegistry);
+        Gauge.builder("movies.entity-cache.size", cache, LruTtlCache::size).tag("key", key).register(meterRegistry);
+        Gauge.builder("movies.entity-cache.hit-ratio", cache, MovieCache::hitRatio).tag("key", key).register(meterRegistry);
+    }
+
+    private static double hitRatio(LruTtlCache<?, ?> cache) {
+        long lookups = cache.hitCount() + cache.missCount();
+        return lookups == 0 ? 0 : (double) cache.hitCount() / lookups;
+    }
+
+    public Movie getById(Long movieId) {
+        Movie cached = byId.get(movieId);
+        return cached == null ? null : Movie.copyOf(cached);
+    }
+
+    public Movie getByTitle(String normalizedTitle) {
+        Long movieId = idByTitle.get(normalizedTitle);
+        return movieId == null ? null : getById(movieId);
+    }
+
+    /**
+     * Read before loading from the database and pass the value to {@link #put}.
+     */
+    public long generation() {
+        synchronized (writeLock) {
+            return generation;
+        }
+    }
+
+    public void put(Movie movie, long loadedAtGeneration) {
+        Movie copy = Movie.copyOf(movie);
+        synchronized (writeLock) {
+            if (generation != loadedAtGeneration) {
+                return;
+            }
+            byId.put(copy.getMovieId(), copy, ttl);
+        }
+    }
+
+    public void putTitle(String normalizedTitle, Movie movie, long loadedAtGeneration) {
+        Movie copy = Movie.copyOf(movie);
+        synchronized (writeLock) {
+            if (generation != loadedAtGeneration) {
+                return;
+            }
+            byId.put(copy.getMovieId(), copy, ttl);
+            idByTitle.put(normalizedTitle, copy.getMovieId(), ttl);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        synchronized (writeLock) {
+            generation++;
+            byId.invalidate(event.movieId());
+            if (event.title() != null) {
+                // a new movie can take over a title whose lookup was cached as another id
+                idByTitle.invalidate(TitleNormalizer.normalize(event.title()));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesBulkUpdated(MoviesBulkUpdatedEvent event) {
+        synchronized (writeLock) {
+            generation++;
+            if (event.movieIds() == null) {
+                byId.clear();
+            } else {
+                event.movieIds().forEach(byId::invalidate);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.movies_selector.cache;
+
+import com.example.movies_selector.domain.CachedMovieList;
+import com.example.movies_selector.domain.MovieChangedEvent;
+import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MoviesBulkUpdatedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Results of the list endpoints keyed by query, parameters and catalogue version. Every committed
+ * change to a movie moves the catalogue to a new version, which makes all earlier entries
+ * unreachable, so they are dropped at the same time. Each query keeps at most
+ * {@code movies.list-cache.max-entries} results holding at most {@code movies.list-cache.max-bytes},
+ * counting the JSON and binary forms remembered with them, and results longer than
+ * {@code movies.list-cache.max-movies} are never kept.
+ */
+@Component
+public class MovieListCache {
+
+    private final Map<String, LruTtlCache<Key, CachedMovieList>> queries = new ConcurrentHashMap<>();
+
+    private final AtomicLong catalogueVersion = new AtomicLong();
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxEntries;
+
+    private final int maxMovies;
+
+    private final long maxBytes;
+
+    private final Duration ttl;
+
+    @Autowired
+    public MovieListCache(MeterRegistry meterRegistry,
+                          @Value("${movies.list-cache.max-entries:64}") int maxEntries,
+                          @Value("${movies.list-cache.max-movies:50000}") int maxMovies,
+                          @Value("${movies.list-cache.max-bytes:67108864}") long maxBytes,
+                          @Value("${movies.list-cache.ttl:10m}") Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+        this.maxMovies = maxMovies;
+        this.maxBytes = maxBytes;
+        this.ttl = ttl;
+        Gauge.builder("movies.catalogue.version", catalogueVersion, AtomicLong::get).register(meterRegistry);
+    }
+
+    public long catalogueVersion() {
+        return catalogueVersion.get();
+    }
+
+    public CachedMovieList get(String query, Object parameters, Supplier<List<MovieDto>> loader) {
+        LruTtlCache<Key, CachedMovieList> results = queries.computeIfAbsent(query, this::newQueryCache);
+        long version = catalogueVersion.get();
+        Key key = new Key(parameters, version);
+        CachedMovieList cached = results.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        CachedMovieList loaded = new CachedMovieList(loader.get(), version, () -> results.reweigh(key));
+        if (loaded.size() <= maxMovies) {
+            results.put(key, loaded, ttl);
+            if (catalogueVersion.get() != version) {
+                // a write committed while loading; the entry can no longer be reached
+                results.invalidate(key);
+            }
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        nextVersion();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesBulkUpdated(MoviesBulkUpdatedEvent event) {
+        nextVersion();
+    }
+
+    private void nextVersion() {
+        catalogueVersion.incrementAndGet();
+        queries.values().forEach(LruTtlCache::clear);
+    }
+
+    private LruTtlCache<Key, CachedMovieList> newQueryCache(String query) {
+        LruTtlCache<Key, CachedMovieList> cache = new LruTtlCache<>(maxEntries, maxBytes, CachedMovieList::retainedBytes);
+        FunctionCounter.builder("movies.list-cache.hits", cache, LruTtlCache::hitCount).tag("query", query).register(meterRegistry);
+        FunctionCounter.builder("movies.list-cache.misses", cache, LruTtlCache::missCount).tag("query", query).register(meterRegistry);
+        FunctionCounter.builder("movies.list-cache.evictions", cache, LruTtlCache::evictionCount).tag("query", query).register(meterRegistry);
+        Gauge.builder("movies.list-cache.size", cache, LruTtlCache::size).tag("query", query).register(meterRegistry);
+        Gauge.builder("movies.list-cache.bytes", cache, LruTtlCache::weight).tag("query", query).register(meterRegistry);
+        return cache;
+    }
+
+    private record Key(Object parameters, long catalogueVersion) {
+    }
+}
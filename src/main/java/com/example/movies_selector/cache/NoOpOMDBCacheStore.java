@@ -0,0 +1,18 @@
+package com.example.movies_selector.cache;
+
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public class NoOpOMDBCacheStore implements OMDBCacheStore {
+
+    @Override
+    public Optional<MovieInfoOMDBDto> load(String normalizedTitle) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void store(String normalizedTitle, MovieInfoOMDBDto response, Duration ttl) {
+    }
+}
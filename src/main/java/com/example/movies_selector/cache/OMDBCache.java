@@ -0,0 +1,82 @@
+package com.example.movies_selector.cache;
+
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class OMDBCache {
+
+    private final LruTtlCache<String, MovieInfoOMDBDto> entries;
+
+    private final OMDBCacheStore store;
+
+    private final Duration foundTtl;
+
+    private final Duration notFoundTtl;
+
+    @Autowired
+    public OMDBCache(ObjectProvider<OMDBCacheStore> store,
+                     MeterRegistry meterRegistry,
+                     @Value("${omdb.cache.max-size:10000}") int maxSize,
+                     @Value("${omdb.cache.found-ttl:24h}") Duration foundTtl,
+                     @Value("${omdb.cache.not-found-ttl:15m}") Duration notFoundTtl) {
+        this.entries = new LruTtlCache<>(maxSize);
+        this.store = store.getIfAvailable(NoOpOMDBCacheStore::new);
+        this.foundTtl = foundTtl;
+        this.notFoundTtl = notFoundTtl;
+
+        FunctionCounter.builder("omdb.cache.hits", entries, LruTtlCache::hitCount).register(meterRegistry);
+        FunctionCounter.builder("omdb.cache.misses", entries, LruTtlCache::missCount).register(meterRegistry);
+        FunctionCounter.builder("omdb.cache.evictions", entries, LruTtlCache::evictionCount).register(meterRegistry);
+        FunctionCounter.builder("omdb.cache.expirations", entries, LruTtlCache::expirationCount).register(meterRegistry);
+        Gauge.builder("omdb.cache.size", entries, LruTtlCache::size).register(meterRegistry);
+    }
+
+    public Optional<MovieInfoOMDBDto> get(String normalizedTitle) {
+        MovieInfoOMDBDto cached = entries.get(normalizedTitle);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<MovieInfoOMDBDto> stored = store.load(normalizedTitle);
+        stored.ifPresent(response -> entries.put(normalizedTitle, response, ttlFor(response)));
+        return stored;
+    }
+
+    public void put(String normalizedTitle, MovieInfoOMDBDto response) {
+        if (response == null) {
+            return;
+        }
+        Duration ttl = ttlFor(response);
+        entries.put(normalizedTitle, response, ttl);
+        store.store(normalizedTitle, response, ttl);
+    }
+
+    public void invalidate(String normalizedTitle) {
+        entries.invalidate(normalizedTitle);
+    }
+
+    public long hitCount() {
+        return entries.hitCount();
+    }
+
+    public long missCount() {
+        return entries.missCount();
+    }
+
+    public long evictionCount() {
+        return entries.evictionCount();
+    }
+
+    private Duration ttlFor(MovieInfoOMDBDto response) {
+        return "False".equals(response.getResponse()) ? notFoundTtl : foundTtl;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.movies_selector.cache;
+
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Second-level tier behind the in-process OMDB cache, e.g. a shared table or Redis.
+ * Keys are normalized titles.
+ */
+public interface OMDBCacheStore {
+
+    Optional<MovieInfoOMDBDto> load(String normalizedTitle);
+
+    void store(String normalizedTitle, MovieInfoOMDBDto response, Duration ttl);
+}
@@ -0,0 +1,63 @@
+package com.example.movies_selector.config;
+
+import com.example.movies_selector.domain.CachedMovieList;
+import com.example.movies_selector.domain.MovieDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a {@link CachedMovieList} from its memoized JSON instead of running it through Jackson
+ * again. Write-only; the bytes are the same as the default JSON converter would produce.
+ */
+public class CachedMovieListHttpMessageConverter extends AbstractHttpMessageConverter<CachedMovieList> {
+
+    private final ObjectWriter writer;
+
+    public CachedMovieListHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, MovieDto.class));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CachedMovieList.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CachedMovieList readInternal(Class<? extends CachedMovieList> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached movie lists are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(CachedMovieList movies, MediaType contentType) throws IOException {
+        return (long) json(movies).length;
+    }
+
+    @Override
+    protected void writeInternal(CachedMovieList movies, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(json(movies));
+    }
+
+    private byte[] json(CachedMovieList movies) {
+        try {
+            return movies.toJson(writer);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write movie list", e);
+        }
+    }
+}
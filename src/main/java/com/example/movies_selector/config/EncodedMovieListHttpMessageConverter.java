@@ -0,0 +1,50 @@
+package com.example.movies_selector.config;
+
+import com.example.movies_selector.domain.CachedMovieList;
+import com.example.movies_selector.domain.MovieListEncoding;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link CachedMovieList} in one {@link MovieListEncoding} for clients that accept its
+ * media type. Write-only, like {@link CachedMovieListHttpMessageConverter}.
+ */
+public class EncodedMovieListHttpMessageConverter extends AbstractHttpMessageConverter<CachedMovieList> {
+
+    private final MovieListEncoding encoding;
+
+    public EncodedMovieListHttpMessageConverter(MovieListEncoding encoding) {
+        super(MediaType.parseMediaType(encoding.getMediaType()));
+        this.encoding = encoding;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CachedMovieList.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CachedMovieList readInternal(Class<? extends CachedMovieList> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached movie lists are write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(CachedMovieList movies, MediaType contentType) throws IOException {
+        return (long) movies.encode(encoding).length;
+    }
+
+    @Override
+    protected void writeInternal(CachedMovieList movies, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(movies.encode(encoding));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.movies_selector.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class OMDBClientConfig {
+
+    @Value("${omdb.client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${omdb.client.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${omdb.client.pool-acquire-timeout:1s}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${omdb.client.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${omdb.client.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager omdbConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .setSoKeepAlive(true)
+                        .build())
+                .build();
+
+        Gauge.builder("omdb.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("OMDB connections currently in use")
+                .register(meterRegistry);
+        Gauge.builder("omdb.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Requests waiting for a free OMDB connection")
+                .register(meterRegistry);
+        Gauge.builder("omdb.pool.idle", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Idle keep-alive OMDB connections")
+                .register(meterRegistry);
+        Gauge.builder("omdb.pool.max", connectionManager, cm -> cm.getTotalStats().getMax())
+                .register(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient omdbHttpClient(PoolingHttpClientConnectionManager omdbConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeout.toMillis()))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(omdbConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate omdbRestTemplate(CloseableHttpClient omdbHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(omdbHttpClient));
+    }
+}
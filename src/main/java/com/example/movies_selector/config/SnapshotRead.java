@@ -0,0 +1,15 @@
+package com.example.movies_selector.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks handlers whose response may come from the catalogue snapshot, so {@link StaleSnapshotInterceptor}
+ * only warns about staleness where it applies.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SnapshotRead {
+}
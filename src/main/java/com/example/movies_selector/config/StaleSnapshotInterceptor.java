@@ -0,0 +1,33 @@
+package com.example.movies_selector.config;
+
+import com.example.movies_selector.service.MovieService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Marks responses of {@link SnapshotRead} handlers served from a catalogue snapshot that could not be
+ * refreshed with {@code Warning: 110 - "Response is Stale"}.
+ */
+public class StaleSnapshotInterceptor implements HandlerInterceptor {
+
+    static final String WARNING_HEADER = "Warning";
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private final MovieService movieService;
+
+    public StaleSnapshotInterceptor(MovieService movieService) {
+        this.movieService = movieService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(SnapshotRead.class)
+                && movieService.isServingStaleSnapshot()) {
+            response.setHeader(WARNING_HEADER, STALE_WARNING);
+        }
+        return true;
+    }
+}
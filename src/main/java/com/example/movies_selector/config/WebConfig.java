@@ -0,0 +1,45 @@
+package com.example.movies_selector.config;
+
+import com.example.movies_selector.domain.MovieListEncoding;
+import com.example.movies_selector.service.MovieService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    private final MovieService movieService;
+
+    public WebConfig(ObjectMapper objectMapper, MovieService movieService) {
+        this.objectMapper = objectMapper;
+        this.movieService = movieService;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // with the dataformats on the classpath MVC would answer CBOR and Smile for every endpoint, with
+        // named fields and string values; only the list endpoints offer the binary forms
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        // ahead of the Jackson converters, which would otherwise serialize cached lists again; JSON
+        // comes first so it stays the answer for a missing or wildcard Accept header
+        converters.add(0, new CachedMovieListHttpMessageConverter(objectMapper));
+        for (MovieListEncoding encoding : MovieListEncoding.values()) {
+            converters.add(1 + encoding.ordinal(), new EncodedMovieListHttpMessageConverter(encoding));
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StaleSnapshotInterceptor(movieService)).addPathPatterns("/movies", "/movies/**");
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.movies_selector.controller;
 
+import com.example.movies_selector.exceptions.DeletionTaskNotFoundException;
+import com.example.movies_selector.exceptions.ImportJobNotFoundException;
+import com.example.movies_selector.exceptions.InvalidBulkUpdateException;
+import com.example.movies_selector.exceptions.InvalidImportException;
+import com.example.movies_selector.exceptions.InvalidPageRequestException;
+import com.example.movies_selector.exceptions.InvalidQueryException;
 import com.example.movies_selector.exceptions.InvalidRatingException;
 import com.example.movies_selector.exceptions.InvalidStatusException;
 import com.example.movies_selector.exceptions.MovieNotFoundException;
+import com.example.movies_selector.exceptions.PreconditionFailedException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -23,11 +31,46 @@ public class GlobalHTTPErrorHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>("Movie already exists", HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({PreconditionFailedException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handleStaleMovie() {
+        return new ResponseEntity<>("Movie was changed by another request, fetch it again and retry", HttpStatus.PRECONDITION_FAILED);
+    }
+
     @ExceptionHandler(InvalidRatingException.class)
     public ResponseEntity<Object> handleImproperRatingParameter(){
         return new ResponseEntity<>("Provide rating in range 0.0 to 10.0", HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<Object> handleImportJobNotFound() {
+        return new ResponseEntity<>("Import job not found", HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(DeletionTaskNotFoundException.class)
+    public ResponseEntity<Object> handleDeletionTaskNotFound() {
+        return new ResponseEntity<>("Deletion task not found", HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<Object> handleInvalidImport(){
+        return new ResponseEntity<>("Provide at least one title and no more than the import limit", HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidBulkUpdateException.class)
+    public ResponseEntity<Object> handleInvalidBulkUpdate(){
+        return new ResponseEntity<>("Provide at least one id or title and no more than the bulk update limit, or at least one filter", HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<Object> handleInvalidPageRequest(){
+        return new ResponseEntity<>("Provide a limit between 1 and the page limit, sort by one of: id, title, year, rating, and pass the continuation token unchanged", HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<Object> handleInvalidQuery(){
+        return new ResponseEntity<>("Provide ranges whose lower bound is not above the upper bound and a non-negative duration", HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(InvalidStatusException.class)
     public ResponseEntity<Object> handleInvalidStatusParameter(){
         return new ResponseEntity<>("Provide correct status, one of: VERY_BAD, BAD, GOOD,VERY_GOOD, WAITING_LIST", HttpStatus.BAD_REQUEST);
@@ -0,0 +1,44 @@
+package com.example.movies_selector.controller;
+
+import com.example.movies_selector.domain.ImportJobDto;
+import com.example.movies_selector.exceptions.ImportJobNotFoundException;
+import com.example.movies_selector.exceptions.InvalidImportException;
+import com.example.movies_selector.service.ImportJobService;
+import com.example.movies_selector.service.MovieImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "movies/imports")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    private final MovieImportService movieImportService;
+
+    @Autowired
+    public ImportJobController(ImportJobService importJobService, MovieImportService movieImportService) {
+        this.importJobService = importJobService;
+        this.movieImportService = movieImportService;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportJobDto> submitImport(@RequestBody List<String> titles) throws InvalidImportException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.submit(titles));
+    }
+
+    @PostMapping(consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<ImportJobDto> submitImportFromLines(@RequestBody String titles) throws InvalidImportException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.submit(movieImportService.splitLines(titles)));
+    }
+
+    @GetMapping(value = "/{jobId}")
+    public ResponseEntity<ImportJobDto> findImport(@PathVariable Long jobId) throws ImportJobNotFoundException {
+        return ResponseEntity.ok(importJobService.findById(jobId));
+    }
+}
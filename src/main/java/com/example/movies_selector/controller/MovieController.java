@@ -1,61 +1,186 @@
 package com.example.movies_selector.controller;
 
+import com.example.movies_selector.config.SnapshotRead;
+import com.example.movies_selector.domain.BulkImportResultDto;
+import com.example.movies_selector.domain.BulkUpdateResultDto;
+import com.example.movies_selector.domain.DeletionTaskDto;
 import com.example.movies_selector.domain.Movie;
 import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MovieETag;
+import com.example.movies_selector.domain.MoviePageDto;
+import com.example.movies_selector.domain.TitleSearchHitDto;
+import com.example.movies_selector.exceptions.DeletionTaskNotFoundException;
+import com.example.movies_selector.exceptions.InvalidBulkUpdateException;
+import com.example.movies_selector.exceptions.InvalidImportException;
+import com.example.movies_selector.exceptions.InvalidPageRequestException;
+import com.example.movies_selector.exceptions.InvalidQueryException;
 import com.example.movies_selector.exceptions.InvalidRatingException;
 import com.example.movies_selector.exceptions.InvalidStatusException;
 import com.example.movies_selector.exceptions.MovieNotFoundException;
+import com.example.movies_selector.exceptions.PreconditionFailedException;
 import com.example.movies_selector.mapper.MoviesMapper;
+import com.example.movies_selector.service.MovieImportService;
 import com.example.movies_selector.service.MovieService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(value = "movies")
 public class MovieController {
 
+    static final String DELETED_COUNT_HEADER = "X-Deleted-Count";
+
     private final MovieService movieService;
 
     private final MoviesMapper mapper;
 
+    private final MovieImportService movieImportService;
+
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public MovieController(MovieService movieService, MoviesMapper mapper) {
+    public MovieController(MovieService movieService, MoviesMapper mapper, MovieImportService movieImportService, ObjectMapper objectMapper) {
         this.movieService = movieService;
         this.mapper = mapper;
+        this.movieImportService = movieImportService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
+    @SnapshotRead
     public ResponseEntity<List<MovieDto>> findAllMovies() {
-        List<Movie> listOfAll = movieService.findAll();
-        return ResponseEntity.ok(mapper.mapToMovieDtoList(listOfAll));
+        return ResponseEntity.ok(movieService.listAll());
+    }
+
+    @GetMapping(produces = "application/x-ndjson")
+    @SnapshotRead
+    public ResponseEntity<StreamingResponseBody> streamMoviesAsLines() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> writeMovies(out, true));
+    }
+
+    @GetMapping(params = {"stream=true", "!limit"})
+    @SnapshotRead
+    public ResponseEntity<StreamingResponseBody> streamMovies() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> writeMovies(out, false));
+    }
+
+    private void writeMovies(OutputStream out, boolean lines) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MovieDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (lines) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                generator.writeStartArray();
+            }
+            try {
+                movieService.streamAllDtos(movie -> {
+                    try {
+                        writer.writeValue(generator, movie);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (lines) {
+                generator.writeRaw('\n');
+            } else {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    @GetMapping(params = "limit")
+    @SnapshotRead
+    public ResponseEntity<MoviePageDto> findMoviesPage(@RequestParam int limit,
+                                                       @RequestParam(defaultValue = "id") String sort,
+                                                       @RequestParam(required = false) String after) throws InvalidPageRequestException {
+        return ResponseEntity.ok(movieService.findDtoPage(sort, after, limit));
     }
 
     @GetMapping(value = "/Id/{movieId}")
     public ResponseEntity<MovieDto> findMovieById(@PathVariable Long movieId) throws MovieNotFoundException {
-        Movie movie = movieService.findById(movieId);
-        return ResponseEntity.ok(mapper.mapToMovieDto(movie));
+        MovieDto movie = movieService.findDtoById(movieId);
+        // a matching If-None-Match turns this into a 304 without a body
+        return ResponseEntity.ok().eTag(MovieETag.of(movie)).body(movie);
     }
 
     @GetMapping(value = "/title/{title}")
     public ResponseEntity<MovieDto> findMovieByTitle(@PathVariable String title) throws MovieNotFoundException {
-        Movie movieWithTitle = movieService.findByTitle(title);
-        return ResponseEntity.ok(mapper.mapToMovieDto(movieWithTitle));
+        MovieDto movieWithTitle = movieService.findDtoByTitle(title);
+        return ResponseEntity.ok().eTag(MovieETag.of(movieWithTitle)).body(movieWithTitle);
+    }
+
+    @GetMapping(value = "/search")
+    public ResponseEntity<List<TitleSearchHitDto>> searchMovies(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(mapper.mapToTitleSearchHitDtoList(movieService.searchTitles(q, limit)));
     }
 
     @GetMapping(value = "/status")
+    @SnapshotRead
     public ResponseEntity<List<MovieDto>> findMoviesByStatus(@RequestParam String status) throws MovieNotFoundException, InvalidStatusException {
-        List<Movie> moviesByStatus = movieService.findByStatus(status);
-        return ResponseEntity.ok(mapper.mapToMovieDtoList(moviesByStatus));
+        return ResponseEntity.ok(movieService.listByStatus(status));
+    }
+
+    @GetMapping(value = "/status", params = "limit")
+    @SnapshotRead
+    public ResponseEntity<MoviePageDto> findMoviesPageByStatus(@RequestParam String status,
+                                                               @RequestParam int limit,
+                                                               @RequestParam(defaultValue = "id") String sort,
+                                                               @RequestParam(required = false) String after) throws InvalidStatusException, InvalidPageRequestException {
+        return ResponseEntity.ok(movieService.findDtoPageByStatus(status, sort, after, limit));
     }
 
     @GetMapping(value = "/rating")
+    @SnapshotRead
     public ResponseEntity<List<MovieDto>> findMoviesByRating(@RequestParam String rating) throws MovieNotFoundException, InvalidRatingException {
-        List<Movie> moviesBetterThan = movieService.findByRating(rating);
-        return ResponseEntity.ok(mapper.mapToMovieDtoList(moviesBetterThan));
+        return ResponseEntity.ok(movieService.listByRating(rating));
+    }
+
+    @GetMapping(value = "/rating", params = "limit")
+    @SnapshotRead
+    public ResponseEntity<MoviePageDto> findMoviesPageByRating(@RequestParam String rating,
+                                                               @RequestParam int limit,
+                                                               @RequestParam(defaultValue = "id") String sort,
+                                                               @RequestParam(required = false) String after) throws InvalidRatingException, InvalidPageRequestException {
+        return ResponseEntity.ok(movieService.findDtoPageByRating(rating, sort, after, limit));
+    }
+
+    @GetMapping(value = "/query")
+    @SnapshotRead
+    public ResponseEntity<MoviePageDto> findMoviesMatching(@RequestParam(required = false) List<String> status,
+                                                           @RequestParam(required = false) String minRating,
+                                                           @RequestParam(required = false) String maxRating,
+                                                           @RequestParam(required = false) Integer fromYear,
+                                                           @RequestParam(required = false) Integer toYear,
+                                                           @RequestParam(required = false) Integer maxDuration,
+                                                           @RequestParam(defaultValue = "100") int limit,
+                                                           @RequestParam(defaultValue = "id") String sort,
+                                                           @RequestParam(required = false) String after)
+            throws InvalidStatusException, InvalidRatingException, InvalidQueryException, InvalidPageRequestException {
+        return ResponseEntity.ok(movieService.findDtoPageMatching(
+                status, minRating, maxRating, fromYear, toYear, maxDuration, sort, after, limit));
     }
 
     @PostMapping
@@ -64,22 +189,70 @@ public class MovieController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDto> addMovies(@RequestBody List<String> titles) throws InvalidImportException {
+        return ResponseEntity.ok(movieImportService.importTitles(titles));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<BulkImportResultDto> addMoviesFromLines(@RequestBody String titles) throws InvalidImportException {
+        return ResponseEntity.ok(movieImportService.importTitles(movieImportService.splitLines(titles)));
+    }
+
     @PutMapping
-    public ResponseEntity<Void> updateStatus(@RequestParam String title, @RequestParam String status) throws MovieNotFoundException, InvalidStatusException {
-        movieService.updateStatus(title, status);
-        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    public ResponseEntity<Void> updateStatus(@RequestParam String title, @RequestParam String status,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws MovieNotFoundException, InvalidStatusException, PreconditionFailedException {
+        Movie updated = movieService.updateStatus(title, status, ifMatch);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).eTag(MovieETag.of(updated)).build();
+    }
+
+    @PutMapping(value = "/bulk/ids", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkUpdateResultDto> updateStatusByIds(@RequestParam String status, @RequestBody List<Long> movieIds)
+            throws InvalidStatusException, InvalidBulkUpdateException {
+        return ResponseEntity.ok(movieService.updateStatusByIds(movieIds, status));
+    }
+
+    @PutMapping(value = "/bulk/titles", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkUpdateResultDto> updateStatusByTitles(@RequestParam String status, @RequestBody List<String> titles)
+            throws InvalidStatusException, InvalidBulkUpdateException {
+        return ResponseEntity.ok(movieService.updateStatusByTitles(titles, status));
+    }
+
+    @PutMapping(value = "/bulk/query")
+    public ResponseEntity<BulkUpdateResultDto> updateStatusMatching(@RequestParam String status,
+                                                                    @RequestParam(required = false) List<String> currentStatus,
+                                                                    @RequestParam(required = false) String minRating,
+                                                                    @RequestParam(required = false) String maxRating,
+                                                                    @RequestParam(required = false) Integer fromYear,
+                                                                    @RequestParam(required = false) Integer toYear,
+                                                                    @RequestParam(required = false) Integer maxDuration)
+            throws InvalidStatusException, InvalidRatingException, InvalidQueryException, InvalidBulkUpdateException {
+        return ResponseEntity.ok(movieService.updateStatusMatching(currentStatus, minRating, maxRating, fromYear, toYear, maxDuration, status));
     }
 
     @DeleteMapping(value = "{movieId}")
-    public ResponseEntity<Void> deleteMovieById(@PathVariable Long movieId) throws MovieNotFoundException {
-        movieService.deleteById(movieId);
+    public ResponseEntity<Void> deleteMovieById(@PathVariable Long movieId,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws MovieNotFoundException, PreconditionFailedException {
+        movieService.deleteById(movieId, ifMatch);
         return ResponseEntity.status(HttpStatus.ACCEPTED).build();
     }
 
     @DeleteMapping()
     public ResponseEntity<Void> deleteMoviesByStatus(@RequestParam String status) throws InvalidStatusException {
-        movieService.deleteAllByStatus(status);
-        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+        long deleted = movieService.deleteAllByStatus(status);
+        return ResponseEntity.ok().header(DELETED_COUNT_HEADER, String.valueOf(deleted)).build();
+    }
+
+    @DeleteMapping(params = "async=true")
+    public ResponseEntity<DeletionTaskDto> deleteMoviesByStatusAsync(@RequestParam String status) throws InvalidStatusException {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(movieService.submitDeleteAllByStatus(status));
+    }
+
+    @GetMapping(value = "/deletions/{taskId}")
+    public ResponseEntity<DeletionTaskDto> findDeletionTask(@PathVariable Long taskId) throws DeletionTaskNotFoundException {
+        return ResponseEntity.ok(movieService.findDeletionTask(taskId));
     }
 }
 
@@ -0,0 +1,19 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BulkImportResultDto {
+    int total;
+    int created;
+    int duplicates;
+    int notFound;
+    int failed;
+    long elapsedMillis;
+    double titlesPerSecond;
+    List<TitleImportResultDto> results;
+}
@@ -0,0 +1,99 @@
+package com.example.movies_selector.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only result of a list query that also remembers its JSON and binary forms, so a cached
+ * result is serialized once per format and then written out as bytes for every later response.
+ * {@link #retainedBytes()} approximates the heap it holds, so the cache can be bounded in bytes.
+ */
+public final class CachedMovieList extends AbstractList<MovieDto> {
+
+    private final List<MovieDto> movies;
+
+    private final long catalogueVersion;
+
+    private final long movieBytes;
+
+    private final Runnable onGrowth;
+
+    private volatile byte[] json;
+
+    private final AtomicReferenceArray<byte[]> encoded = new AtomicReferenceArray<>(MovieListEncoding.values().length);
+
+    public CachedMovieList(List<MovieDto> movies, long catalogueVersion) {
+        this(movies, catalogueVersion, () -> {
+        });
+    }
+
+    /**
+     * @param onGrowth run after a serialized form has been remembered, which grows {@link #retainedBytes()}
+     */
+    public CachedMovieList(List<MovieDto> movies, long catalogueVersion, Runnable onGrowth) {
+        this.movies = List.copyOf(movies);
+        this.catalogueVersion = catalogueVersion;
+        this.movieBytes = this.movies.stream().mapToLong(CachedMovieList::estimateBytes).sum();
+        this.onGrowth = onGrowth;
+    }
+
+    @Override
+    public MovieDto get(int index) {
+        return movies.get(index);
+    }
+
+    @Override
+    public int size() {
+        return movies.size();
+    }
+
+    public long getCatalogueVersion() {
+        return catalogueVersion;
+    }
+
+    public long retainedBytes() {
+        byte[] serialized = json;
+        long bytes = movieBytes + (serialized == null ? 0 : serialized.length);
+        for (int i = 0; i < encoded.length(); i++) {
+            serialized = encoded.get(i);
+            bytes += serialized == null ? 0 : serialized.length;
+        }
+        return bytes;
+    }
+
+    public byte[] toJson(ObjectWriter writer) throws JsonProcessingException {
+        byte[] serialized = json;
+        if (serialized == null) {
+            // concurrent first writers may both serialize; the result is the same either way
+            serialized = writer.writeValueAsBytes(movies);
+            json = serialized;
+            onGrowth.run();
+        }
+        return serialized;
+    }
+
+    public byte[] encode(MovieListEncoding encoding) throws IOException {
+        byte[] serialized = encoded.get(encoding.ordinal());
+        if (serialized == null) {
+            serialized = encoding.encode(movies);
+            encoded.set(encoding.ordinal(), serialized);
+            onGrowth.run();
+        }
+        return serialized;
+    }
+
+    // object headers and references of the DTO, its boxed id and version, and its Latin-1 strings
+    private static long estimateBytes(MovieDto movie) {
+        return 96 + estimateBytes(movie.getMovieTitle()) + estimateBytes(movie.getProductionYear())
+                + estimateBytes(movie.getDuration()) + estimateBytes(movie.getStatus()) + estimateBytes(movie.getRating());
+    }
+
+    private static long estimateBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+}
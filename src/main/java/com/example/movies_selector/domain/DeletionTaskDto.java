@@ -0,0 +1,21 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class DeletionTaskDto {
+    Long taskId;
+    String status;
+    String movieStatus;
+    long total;
+    long deleted;
+    double moviesPerSecond;
+    Long etaSeconds;
+    Instant createdAt;
+    Instant startedAt;
+    Instant finishedAt;
+}
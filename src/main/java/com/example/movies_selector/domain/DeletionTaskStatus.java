@@ -0,0 +1,9 @@
+package com.example.movies_selector.domain;
+
+public enum DeletionTaskStatus {
+
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,16 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EnrichmentReportDto {
+    boolean dryRun;
+    int lookups;
+    int updated;
+    int unchanged;
+    int failed;
+    int skipped;
+    boolean stoppedByOMDB;
+}
@@ -0,0 +1,143 @@
+package com.example.movies_selector.domain;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "IMPORT_JOBS", indexes = {@Index(name = "IDX_IMPORT_JOBS_STATUS", columnList = "STATUS")})
+public class ImportJob {
+
+    private Long id;
+    private ImportJobStatus status;
+    private int total;
+    private int processed;
+    private int created;
+    private int duplicates;
+    private int notFound;
+    private int failed;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    public ImportJob(int total) {
+        this.total = total;
+        this.status = ImportJobStatus.QUEUED;
+        this.createdAt = Instant.now();
+    }
+
+    public ImportJob() {
+    }
+
+    @Id
+    @GeneratedValue
+    @Column(name = "ID")
+    public Long getJobId() {
+        return id;
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS")
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+
+    @Column(name = "TOTAL")
+    public int getTotal() {
+        return total;
+    }
+
+    @Column(name = "PROCESSED")
+    public int getProcessed() {
+        return processed;
+    }
+
+    @Column(name = "CREATED")
+    public int getCreated() {
+        return created;
+    }
+
+    @Column(name = "DUPLICATES")
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    @Column(name = "NOT_FOUND")
+    public int getNotFound() {
+        return notFound;
+    }
+
+    @Column(name = "FAILED")
+    public int getFailed() {
+        return failed;
+    }
+
+    @Column(name = "CREATED_AT")
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    @Column(name = "STARTED_AT")
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    @Column(name = "FINISHED_AT")
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    private void setJobId(Long jobId) {
+        this.id = jobId;
+    }
+
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+
+    private void setTotal(int total) {
+        this.total = total;
+    }
+
+    private void setProcessed(int processed) {
+        this.processed = processed;
+    }
+
+    private void setCreated(int created) {
+        this.created = created;
+    }
+
+    private void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    private void setNotFound(int notFound) {
+        this.notFound = notFound;
+    }
+
+    private void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    private void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public void recordOutcome(ImportOutcome outcome) {
+        processed++;
+        switch (outcome) {
+            case CREATED -> created++;
+            case DUPLICATE -> duplicates++;
+            case NOT_FOUND -> notFound++;
+            case FAILED -> failed++;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class ImportJobDto {
+    Long jobId;
+    String status;
+    int total;
+    int processed;
+    int created;
+    int duplicates;
+    int notFound;
+    int failed;
+    double itemsPerSecond;
+    Long etaSeconds;
+    Instant createdAt;
+    Instant startedAt;
+    Instant finishedAt;
+}
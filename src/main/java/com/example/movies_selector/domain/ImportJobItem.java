@@ -0,0 +1,81 @@
+package com.example.movies_selector.domain;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "IMPORT_JOB_ITEMS", indexes = {@Index(name = "IDX_IMPORT_JOB_ITEMS_JOB_OUTCOME", columnList = "JOB_ID, OUTCOME, ITEM_POSITION")})
+public class ImportJobItem {
+
+    private Long id;
+    private Long jobId;
+    private int position;
+    private String title;
+    private ImportOutcome outcome;
+    private Long movieId;
+
+    public ImportJobItem(Long jobId, int position, String title) {
+        this.jobId = jobId;
+        this.position = position;
+        this.title = title;
+    }
+
+    public ImportJobItem() {
+    }
+
+    @Id
+    @GeneratedValue
+    @Column(name = "ID")
+    public Long getItemId() {
+        return id;
+    }
+
+    @Column(name = "JOB_ID", nullable = false)
+    public Long getJobId() {
+        return jobId;
+    }
+
+    @Column(name = "ITEM_POSITION")
+    public int getPosition() {
+        return position;
+    }
+
+    @Column(name = "TITLE")
+    public String getTitle() {
+        return title;
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "OUTCOME")
+    public ImportOutcome getOutcome() {
+        return outcome;
+    }
+
+    @Column(name = "MOVIE_ID")
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    private void setItemId(Long itemId) {
+        this.id = itemId;
+    }
+
+    private void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    private void setPosition(int position) {
+        this.position = position;
+    }
+
+    private void setTitle(String title) {
+        this.title = title;
+    }
+
+    public void setOutcome(ImportOutcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public void setMovieId(Long movieId) {
+        this.movieId = movieId;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.movies_selector.domain;
+
+public enum ImportJobStatus {
+
+    QUEUED,
+    RUNNING,
+    COMPLETED
+}
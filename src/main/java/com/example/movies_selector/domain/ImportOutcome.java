@@ -0,0 +1,9 @@
+package com.example.movies_selector.domain;
+
+public enum ImportOutcome {
+
+    CREATED,
+    DUPLICATE,
+    NOT_FOUND,
+    FAILED
+}
@@ -1,25 +1,95 @@
 package com.example.movies_selector.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Entity
-@Table(name = "MOVIES", uniqueConstraints = {@UniqueConstraint(columnNames = {"TITLE", "PRODUCTION_YEAR"})})
+@DynamicUpdate
+@EntityListeners(MovieEntityListener.class)
+@Table(name = "MOVIES",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"TITLE", "PRODUCTION_YEAR"}),
+                @UniqueConstraint(name = "UK_MOVIES_NORMALIZED_TITLE_YEAR", columnNames = {"NORMALIZED_TITLE", "PRODUCTION_YEAR"})},
+        indexes = {@Index(name = "IDX_MOVIES_RATING_TENTHS", columnList = "RATING_TENTHS"),
+                @Index(name = "IDX_MOVIES_STATUS_RATING", columnList = "MY_STATUS, RATING_TENTHS"),
+                @Index(name = "IDX_MOVIES_RELEASE_YEAR_DURATION", columnList = "RELEASE_YEAR, DURATION_MINUTES"),
+                @Index(name = "IDX_MOVIES_DURATION_MINUTES", columnList = "DURATION_MINUTES")})
 public class Movie {
 
+    private static final Pattern YEAR = Pattern.compile("\\d{4}");
+    private static final Pattern LEADING_NUMBER = Pattern.compile("^\\s*(\\d+)");
+
     private Long id;
     private String title;
+    private String normalizedTitle;
     private String year;
     private Status status;
     private String imdbStatus;
+    private Integer ratingTenths;
+    private Integer releaseYear;
     String duration;
+    private Integer durationMinutes;
+    private Boolean enrichmentPending;
+    private Instant lastEnrichedAt;
+    private Long version;
 
     public Movie(String title) {
         this.title = title;
+        this.normalizedTitle = TitleNormalizer.normalize(title);
     }
 
     public Movie() {
     }
 
+    /**
+     * Detached copy with the same id and version, so saving it still goes through the version check.
+     */
+    public static Movie copyOf(Movie movie) {
+        Movie copy = new Movie();
+        copy.id = movie.id;
+        copy.title = movie.title;
+        copy.normalizedTitle = movie.normalizedTitle;
+        copy.year = movie.year;
+        copy.status = movie.status;
+        copy.imdbStatus = movie.imdbStatus;
+        copy.ratingTenths = movie.ratingTenths;
+        copy.releaseYear = movie.releaseYear;
+        copy.duration = movie.duration;
+        copy.durationMinutes = movie.durationMinutes;
+        copy.enrichmentPending = movie.enrichmentPending;
+        copy.lastEnrichedAt = movie.lastEnrichedAt;
+        copy.version = movie.version;
+        return copy;
+    }
+
+    /**
+     * Detached movie rebuilt from stored column values, derived columns included as they were stored.
+     */
+    public static Movie restore(Long movieId, Long version, String title, String normalizedTitle,
+                                String year, Integer releaseYear, Status status, String imdbStatus, Integer ratingTenths,
+                                String duration, Integer durationMinutes, Boolean enrichmentPending, Instant lastEnrichedAt) {
+        Movie movie = new Movie();
+        movie.id = movieId;
+        movie.version = version;
+        movie.title = title;
+        movie.normalizedTitle = normalizedTitle;
+        movie.year = year;
+        movie.releaseYear = releaseYear;
+        movie.status = status;
+        movie.imdbStatus = imdbStatus;
+        movie.ratingTenths = ratingTenths;
+        movie.duration = duration;
+        movie.durationMinutes = durationMinutes;
+        movie.enrichmentPending = enrichmentPending;
+        movie.lastEnrichedAt = lastEnrichedAt;
+        return movie;
+    }
+
+    // Hibernate's default generator: sequence Movie_SEQ (movie_seq under Spring's naming), increment 50,
+    // pooled, so batched inserts take ids in blocks of 50
     @Id
     @GeneratedValue
     @Column(name = "ID")
@@ -32,16 +102,31 @@ public class Movie {
         return title;
     }
 
+    @Column(name = "NORMALIZED_TITLE")
+    public String getNormalizedTitle() {
+        return normalizedTitle;
+    }
+
     @Column(name = "PRODUCTION_YEAR")
     public String getYear() {
         return year;
     }
 
+    @Column(name = "RELEASE_YEAR")
+    public Integer getReleaseYear() {
+        return releaseYear;
+    }
+
     @Column(name = "DURATION")
     public String getDuration() {
         return duration;
     }
 
+    @Column(name = "DURATION_MINUTES")
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
     @Enumerated(EnumType.STRING)
     @Column(name = "MY_STATUS")
     public Status getStatus() {
@@ -53,16 +138,51 @@ public class Movie {
         return imdbStatus;
     }
 
+    @Column(name = "RATING_TENTHS")
+    public Integer getRatingTenths() {
+        return ratingTenths;
+    }
+
+    @Column(name = "ENRICHMENT_PENDING")
+    public Boolean getEnrichmentPending() {
+        return enrichmentPending;
+    }
+
+    @Column(name = "LAST_ENRICHED_AT")
+    public Instant getLastEnrichedAt() {
+        return lastEnrichedAt;
+    }
+
+    @Version
+    @Column(name = "VERSION")
+    public Long getVersion() {
+        return version;
+    }
+
     private void setMovieId(Long movieId) {
         this.id = movieId;
     }
 
+    // only used when loading; the stored normalized title is kept as is, so loading a row never makes it dirty
     private void setTitle(String title) {
         this.title = title;
     }
 
+    private void setNormalizedTitle(String normalizedTitle) {
+        this.normalizedTitle = normalizedTitle;
+    }
+
+    private void setVersion(Long version) {
+        this.version = version;
+    }
+
     public void setYear(String year) {
         this.year = year;
+        this.releaseYear = toReleaseYear(year);
+    }
+
+    private void setReleaseYear(Integer releaseYear) {
+        this.releaseYear = releaseYear;
     }
 
     public void setStatus(Status status) {
@@ -71,9 +191,73 @@ public class Movie {
 
     public void setImdbStatus(String imdbStatus) {
         this.imdbStatus = imdbStatus;
+        this.ratingTenths = toRatingTenths(imdbStatus);
+    }
+
+    private void setRatingTenths(Integer ratingTenths) {
+        this.ratingTenths = ratingTenths;
+    }
+
+    public void refreshDerivedColumns() {
+        this.normalizedTitle = TitleNormalizer.normalize(title);
+        this.ratingTenths = toRatingTenths(imdbStatus);
+        this.releaseYear = toReleaseYear(year);
+        this.durationMinutes = toDurationMinutes(duration);
+    }
+
+    /**
+     * For a row whose normalized title and year collide with another movie: a normalized title that
+     * stays unique and still starts with the real one.
+     */
+    public void useFallbackNormalizedTitle() {
+        this.normalizedTitle = TitleNormalizer.normalize(title) + " #" + id;
+    }
+
+    public static Integer toRatingTenths(String rating) {
+        if (rating == null) {
+            return null;
+        }
+        try {
+            return (int) Math.round(Double.parseDouble(rating) * 10);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static Integer toReleaseYear(String year) {
+        if (year == null) {
+            return null;
+        }
+        Matcher matcher = YEAR.matcher(year);
+        return matcher.find() ? Integer.valueOf(matcher.group()) : null;
+    }
+
+    public static Integer toDurationMinutes(String duration) {
+        if (duration == null) {
+            return null;
+        }
+        Matcher matcher = LEADING_NUMBER.matcher(duration);
+        try {
+            return matcher.find() ? Integer.valueOf(matcher.group(1)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     public void setDuration(String duration) {
         this.duration = duration;
+        this.durationMinutes = toDurationMinutes(duration);
+    }
+
+    private void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public void setEnrichmentPending(Boolean enrichmentPending) {
+        this.enrichmentPending = enrichmentPending;
+    }
+
+    public void setLastEnrichedAt(Instant lastEnrichedAt) {
+        this.lastEnrichedAt = lastEnrichedAt;
     }
 }
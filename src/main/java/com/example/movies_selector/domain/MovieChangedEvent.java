@@ -0,0 +1,16 @@
+package com.example.movies_selector.domain;
+
+public record MovieChangedEvent(Long movieId, String title, String year, Integer ratingTenths, boolean deleted) {
+
+    public static MovieChangedEvent saved(Movie movie) {
+        return new MovieChangedEvent(movie.getMovieId(), movie.getTitle(), movie.getYear(), movie.getRatingTenths(), false);
+    }
+
+    public static MovieChangedEvent deleted(Movie movie) {
+        return new MovieChangedEvent(movie.getMovieId(), movie.getTitle(), movie.getYear(), null, true);
+    }
+
+    public static MovieChangedEvent deleted(Long movieId) {
+        return new MovieChangedEvent(movieId, null, null, null, true);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor
+public class MovieCriteria {
+    Set<Status> statuses;
+    Integer minRatingTenths;
+    Integer maxRatingTenths;
+    Integer fromYear;
+    Integer toYear;
+    Integer maxDurationMinutes;
+
+    public static MovieCriteria any() {
+        return new MovieCriteria(EnumSet.noneOf(Status.class), null, null, null, null, null);
+    }
+
+    public static MovieCriteria withStatus(Status status) {
+        return new MovieCriteria(EnumSet.of(status), null, null, null, null, null);
+    }
+
+    public static MovieCriteria withMinRating(int minRatingTenths) {
+        return new MovieCriteria(EnumSet.noneOf(Status.class), minRatingTenths, null, null, null, null);
+    }
+
+    public boolean matchesAll() {
+        return statuses.isEmpty() && minRatingTenths == null && maxRatingTenths == null
+                && fromYear == null && toYear == null && maxDurationMinutes == null;
+    }
+
+    public String key() {
+        return statuses.stream()
+                .sorted()
+                .map(Status::name)
+                .collect(Collectors.joining(",", "s=", ""))
+                + ";r=" + minRatingTenths + "-" + maxRatingTenths
+                + ";y=" + fromYear + "-" + toYear
+                + ";d=" + maxDurationMinutes;
+    }
+}
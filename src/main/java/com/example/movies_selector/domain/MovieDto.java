@@ -1,5 +1,6 @@
 package com.example.movies_selector.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -12,4 +13,15 @@ public class MovieDto {
     String duration;
     String status;
     String rating;
+
+    // for the ETag of single-movie reads, not part of the body
+    @JsonIgnore
+    Long version;
+
+    /**
+     * Target of the constructor projections in MovieRepository.
+     */
+    public MovieDto(Long movieId, String movieTitle, String productionYear, String duration, Status status, String rating, Long version) {
+        this(movieId, movieTitle, productionYear, duration, status == null ? null : status.toString(), rating, version);
+    }
 }
@@ -0,0 +1,41 @@
+package com.example.movies_selector.domain;
+
+/**
+ * Strong entity tags built from a movie's id and version, so a tag never matches a different
+ * movie that later takes the same title.
+ */
+public final class MovieETag {
+
+    private MovieETag() {
+    }
+
+    public static String of(Movie movie) {
+        return of(movie.getMovieId(), movie.getVersion());
+    }
+
+    public static String of(MovieDto movie) {
+        return of(movie.getMovieId(), movie.getVersion());
+    }
+
+    private static String of(Long movieId, Long version) {
+        return "\"" + movieId + "-" + version + "\"";
+    }
+
+    /**
+     * Evaluates an If-Match header against the current movie; an absent header always matches.
+     */
+    public static boolean matches(String ifMatch, Movie movie) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        String current = of(movie);
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            // If-Match uses strong comparison, so weak tags never match
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
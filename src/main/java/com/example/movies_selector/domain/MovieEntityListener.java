@@ -0,0 +1,30 @@
+package com.example.movies_selector.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MovieEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public MovieEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Movie movie) {
+        eventPublisher.publishEvent(MovieChangedEvent.saved(movie));
+    }
+
+    @PostRemove
+    public void onRemoved(Movie movie) {
+        eventPublisher.publishEvent(MovieChangedEvent.deleted(movie));
+    }
+}
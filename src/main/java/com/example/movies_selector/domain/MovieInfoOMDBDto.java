@@ -22,4 +22,6 @@ public class MovieInfoOMDBDto {
     private String duration;
     @JsonProperty("Response")
     private String response;
+    @JsonProperty("Error")
+    private String error;
 }
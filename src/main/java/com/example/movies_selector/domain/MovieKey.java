@@ -0,0 +1,4 @@
+package com.example.movies_selector.domain;
+
+public record MovieKey(String normalizedTitle, String year) {
+}
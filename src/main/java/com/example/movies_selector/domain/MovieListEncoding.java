@@ -0,0 +1,121 @@
+package com.example.movies_selector.domain;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact binary forms of a movie list, offered next to JSON to clients that ask for them. Every
+ * form carries the {@link MovieDto} columns with the status as its {@link Status} ordinal and the
+ * rating in tenths; a missing status or rating is null in CBOR and Smile and -1 in the columnar form.
+ * <p>
+ * CBOR and Smile hold an array with one {@code [id, title, year, duration, status, rating]} array
+ * per movie. The columnar form is big-endian: the movie count as an int, then every id as a long,
+ * then the titles, years and durations, each a length-prefixed UTF-8 string (length -1 for null),
+ * then one status byte and one rating short per movie.
+ */
+public enum MovieListEncoding {
+    CBOR("application/cbor"),
+    SMILE("application/x-jackson-smile"),
+    COLUMNAR("application/vnd.movies.columnar");
+
+    private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+
+    private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+
+    private final String mediaType;
+
+    MovieListEncoding(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public byte[] encode(List<MovieDto> movies) throws IOException {
+        return switch (this) {
+            case CBOR -> encodeRows(CBOR_FACTORY, movies);
+            case SMILE -> encodeRows(SMILE_FACTORY, movies);
+            case COLUMNAR -> encodeColumns(movies);
+        };
+    }
+
+    private static byte[] encodeRows(JsonFactory factory, List<MovieDto> movies) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(movies.size() * 48 + 16);
+        try (JsonGenerator generator = factory.createGenerator(bytes)) {
+            generator.writeStartArray(movies, movies.size());
+            for (MovieDto movie : movies) {
+                generator.writeStartArray(movie, 6);
+                writeNumber(generator, movie.getMovieId());
+                generator.writeString(movie.getMovieTitle());
+                generator.writeString(movie.getProductionYear());
+                generator.writeString(movie.getDuration());
+                writeNumber(generator, statusOrdinal(movie.getStatus()));
+                writeNumber(generator, Movie.toRatingTenths(movie.getRating()));
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeNumber(JsonGenerator generator, Number value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof Long) {
+            generator.writeNumber(value.longValue());
+        } else {
+            generator.writeNumber(value.intValue());
+        }
+    }
+
+    private static byte[] encodeColumns(List<MovieDto> movies) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(movies.size() * 40 + 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(movies.size());
+        for (MovieDto movie : movies) {
+            out.writeLong(movie.getMovieId() == null ? -1 : movie.getMovieId());
+        }
+        for (MovieDto movie : movies) {
+            writeString(out, movie.getMovieTitle());
+        }
+        for (MovieDto movie : movies) {
+            writeString(out, movie.getProductionYear());
+        }
+        for (MovieDto movie : movies) {
+            writeString(out, movie.getDuration());
+        }
+        for (MovieDto movie : movies) {
+            Integer status = statusOrdinal(movie.getStatus());
+            out.writeByte(status == null ? -1 : status);
+        }
+        for (MovieDto movie : movies) {
+            Integer ratingTenths = Movie.toRatingTenths(movie.getRating());
+            out.writeShort(ratingTenths == null ? -1 : ratingTenths);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static Integer statusOrdinal(String status) {
+        return status == null ? null : Status.valueOf(status).ordinal();
+    }
+}
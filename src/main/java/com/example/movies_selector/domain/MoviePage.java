@@ -0,0 +1,13 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class MoviePage {
+    List<Movie> movies;
+    String next;
+}
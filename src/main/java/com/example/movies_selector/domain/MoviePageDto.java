@@ -0,0 +1,13 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class MoviePageDto {
+    List<MovieDto> movies;
+    String next;
+}
@@ -0,0 +1,4 @@
+package com.example.movies_selector.domain;
+
+public record MovieRating(Long movieId, Integer ratingTenths) {
+}
@@ -0,0 +1,9 @@
+package com.example.movies_selector.domain;
+
+/**
+ * A page row projected without loading the entity: the {@link MovieDto} columns plus the keys a
+ * page cursor may need.
+ */
+public record MovieRow(Long movieId, String title, String year, String duration, Status status, String imdbStatus,
+                       Long version, Integer releaseYear, Integer ratingTenths) {
+}
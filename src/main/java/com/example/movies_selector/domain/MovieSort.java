@@ -0,0 +1,36 @@
+package com.example.movies_selector.domain;
+
+public enum MovieSort {
+    ID("movieId"),
+    TITLE("title"),
+    YEAR("releaseYear"),
+    RATING("ratingTenths");
+
+    private final String attribute;
+
+    MovieSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public String keyOf(Movie movie) {
+        return switch (this) {
+            case ID -> null;
+            case TITLE -> movie.getTitle();
+            case YEAR -> movie.getReleaseYear() == null ? null : movie.getReleaseYear().toString();
+            case RATING -> movie.getRatingTenths() == null ? null : movie.getRatingTenths().toString();
+        };
+    }
+
+    public String keyOf(MovieRow row) {
+        return switch (this) {
+            case ID -> null;
+            case TITLE -> row.title();
+            case YEAR -> row.releaseYear() == null ? null : row.releaseYear().toString();
+            case RATING -> row.ratingTenths() == null ? null : row.ratingTenths().toString();
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.movies_selector.domain;
+
+import java.util.List;
+
+/**
+ * Published after a set-based write that bypassed the entity listeners. {@code movieIds} is null
+ * when the rows were selected by title or filter, so any movie may have changed.
+ */
+public record MoviesBulkUpdatedEvent(List<Long> movieIds) {
+
+    public static MoviesBulkUpdatedEvent of(List<Long> movieIds) {
+        return new MoviesBulkUpdatedEvent(List.copyOf(movieIds));
+    }
+
+    public static MoviesBulkUpdatedEvent unknown() {
+        return new MoviesBulkUpdatedEvent(null);
+    }
+}
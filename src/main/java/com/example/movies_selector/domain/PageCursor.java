@@ -0,0 +1,91 @@
+package com.example.movies_selector.domain;
+
+import com.example.movies_selector.exceptions.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page: the sort key and id of that row, plus the filter and sort
+ * the page was read with so a token cannot be replayed against a different listing.
+ * Rows whose sort key is null are listed after all others, ordered by id alone.
+ */
+public class PageCursor {
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "\n";
+
+    private final String filter;
+    private final MovieSort sort;
+    private final boolean inNulls;
+    private final long lastId;
+    private final String lastKey;
+
+    private PageCursor(String filter, MovieSort sort, boolean inNulls, long lastId, String lastKey) {
+        this.filter = filter;
+        this.sort = sort;
+        this.inNulls = inNulls;
+        this.lastId = lastId;
+        this.lastKey = lastKey;
+    }
+
+    public static PageCursor after(String filter, MovieSort sort, Movie movie) {
+        return after(filter, sort, movie.getMovieId(), sort.keyOf(movie));
+    }
+
+    public static PageCursor after(String filter, MovieSort sort, MovieRow row) {
+        return after(filter, sort, row.movieId(), sort.keyOf(row));
+    }
+
+    private static PageCursor after(String filter, MovieSort sort, long lastId, String key) {
+        return new PageCursor(filter, sort, sort != MovieSort.ID && key == null, lastId, key);
+    }
+
+    public static PageCursor decode(String token, String filter, MovieSort sort) throws InvalidPageRequestException {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 6);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException();
+        }
+        if (parts.length != 6 || !parts[0].equals(VERSION) || !parts[1].equals(filter) || !parts[2].equals(sort.name())) {
+            throw new InvalidPageRequestException();
+        }
+        boolean inNulls = parts[3].equals("N");
+        if (!inNulls && !parts[3].equals("V")) {
+            throw new InvalidPageRequestException();
+        }
+        try {
+            long lastId = Long.parseLong(parts[4]);
+            String lastKey = inNulls || sort == MovieSort.ID ? null : parts[5];
+            if ((sort == MovieSort.RATING || sort == MovieSort.YEAR) && lastKey != null) {
+                Integer.parseInt(lastKey);
+            }
+            return new PageCursor(filter, sort, inNulls, lastId, lastKey);
+        } catch (NumberFormatException e) {
+            throw new InvalidPageRequestException();
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, filter, sort.name(), inNulls ? "N" : "V",
+                Long.toString(lastId), lastKey == null ? "" : lastKey);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public MovieSort getSort() {
+        return sort;
+    }
+
+    public boolean isInNulls() {
+        return inNulls;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public String getLastKey() {
+        return lastKey;
+    }
+}
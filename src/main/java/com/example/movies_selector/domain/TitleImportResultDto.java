@@ -0,0 +1,13 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TitleImportResultDto {
+    String requestedTitle;
+    ImportOutcome outcome;
+    Long movieId;
+    String message;
+}
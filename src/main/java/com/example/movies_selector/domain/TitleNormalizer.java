@@ -0,0 +1,50 @@
+package com.example.movies_selector.domain;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+public final class TitleNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private TitleNormalizer() {
+    }
+
+    public static String normalize(String title) {
+        if (title == null) {
+            return null;
+        }
+        if (isAscii(title)) {
+            return foldAndCollapse(title);
+        }
+        String decomposed = Normalizer.normalize(title, Normalizer.Form.NFD);
+        return foldAndCollapse(COMBINING_MARKS.matcher(decomposed).replaceAll(""));
+    }
+
+    private static boolean isAscii(String title) {
+        for (int i = 0; i < title.length(); i++) {
+            if (title.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String foldAndCollapse(String title) {
+        StringBuilder folded = new StringBuilder(title.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = folded.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                folded.append(' ');
+                pendingSpace = false;
+            }
+            folded.append(Character.toLowerCase(c));
+        }
+        return folded.toString();
+    }
+}
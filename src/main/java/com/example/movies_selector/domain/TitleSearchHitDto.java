@@ -0,0 +1,12 @@
+package com.example.movies_selector.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TitleSearchHitDto {
+    Long movieId;
+    String movieTitle;
+    double score;
+}
@@ -0,0 +1,4 @@
+package com.example.movies_selector.exceptions;
+
+public class InvalidPageRequestException extends Exception {
+}
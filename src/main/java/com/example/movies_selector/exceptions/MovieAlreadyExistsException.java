@@ -0,0 +1,10 @@
+package com.example.movies_selector.exceptions;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+public class MovieAlreadyExistsException extends DataIntegrityViolationException {
+
+    public MovieAlreadyExistsException() {
+        super("Movie already exists");
+    }
+}
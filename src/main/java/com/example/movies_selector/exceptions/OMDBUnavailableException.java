@@ -0,0 +1,12 @@
+package com.example.movies_selector.exceptions;
+
+public class OMDBUnavailableException extends RuntimeException {
+
+    public OMDBUnavailableException(String message) {
+        super(message);
+    }
+
+    public OMDBUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.movies_selector.index;
+
+/**
+ * Bloom filter over strings, sized for an expected number of keys and false-positive rate.
+ * Probe positions come from one 64-bit hash split in two (Kirsch-Mitzenmacher). Keys cannot be removed.
+ */
+final class BloomFilter {
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+    private long bitsSet;
+    private int insertions;
+
+    BloomFilter(int expectedKeys, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        int keys = Math.max(1, expectedKeys);
+        long bits = (long) Math.ceil(-keys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        words = new long[(int) Math.max(1, (bits + 63) >>> 6)];
+        bitCount = (long) words.length << 6;
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / keys * Math.log(2)));
+    }
+
+    void add(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                bitsSet++;
+            }
+        }
+        insertions++;
+    }
+
+    boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int insertions() {
+        return insertions;
+    }
+
+    /**
+     * False-positive rate implied by the bits set so far; grows as keys are added past the expected count.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet / bitCount, hashCount);
+    }
+
+    long memoryBytes() {
+        return 16L + 8L * words.length;
+    }
+
+    private static long hash(String key) {
+        // FNV-1a over UTF-16 code units, then the MurmurHash3 finalizer to spread the high bits
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,553 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieCriteria;
+import com.example.movies_selector.domain.MovieSort;
+import com.example.movies_selector.domain.PageCursor;
+import com.example.movies_selector.domain.Status;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable copy of the whole catalogue held as one array per column, rows in id order, plus row
+ * orders for title lookups and the sorted page listings. Applying changes builds a new snapshot:
+ * unchanged rows keep their strings and the row orders are merged instead of sorted again.
+ * Titles compare by {@link String#compareTo}, which may differ from the database collation.
+ */
+public final class CatalogueSnapshot {
+
+    private static final int NONE = Integer.MIN_VALUE;
+    private static final long NO_INSTANT = Long.MIN_VALUE;
+    private static final byte NO_STATUS = -1;
+    private static final long NULL_KEY = 1L << 62;
+    private static final Status[] STATUSES = Status.values();
+
+    // ids, versions, lastEnrichedAt, five string references, three int columns, two byte columns, four row orders
+    private static final int BYTES_PER_ROW = 8 + 8 + 8 + 5 * 4 + 3 * 4 + 2 + 4 * 4;
+
+    private final long generation;
+    private final Instant builtAt;
+    private final boolean stale;
+    private final Rows rows;
+    private final int[][] orders;
+    private final int[] nullsFrom;
+    private final long titleBytes;
+
+    private CatalogueSnapshot(long generation, Instant builtAt, boolean stale, Rows rows, int[][] orders, long titleBytes) {
+        this.generation = generation;
+        this.builtAt = builtAt;
+        this.stale = stale;
+        this.rows = rows;
+        this.orders = orders;
+        this.nullsFrom = new int[Column.values().length];
+        for (Column column : Column.values()) {
+            nullsFrom[column.ordinal()] = firstNull(column, orders[column.ordinal()]);
+        }
+        this.titleBytes = titleBytes;
+    }
+
+    public static Builder builder(int expectedSize, Map<String, String> stringPool) {
+        return new Builder(expectedSize, stringPool);
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public int size() {
+        return rows.size;
+    }
+
+    /**
+     * Estimate assuming compressed references and Latin-1 titles; pooled year, rating and duration
+     * strings are shared across rows and not counted.
+     */
+    public long memoryBytes() {
+        return (long) BYTES_PER_ROW * rows.size + titleBytes;
+    }
+
+    public CatalogueSnapshot asStale() {
+        return stale ? this : new CatalogueSnapshot(generation, builtAt, true, rows, orders, titleBytes);
+    }
+
+    public Movie findById(long movieId) {
+        int row = Arrays.binarySearch(rows.ids, 0, rows.size, movieId);
+        return row < 0 ? null : movieAt(row);
+    }
+
+    public Movie findFirstByNormalizedTitle(String normalizedTitle) {
+        if (normalizedTitle == null) {
+            return null;
+        }
+        int[] order = orders[Column.NORMALIZED_TITLE.ordinal()];
+        int low = 0;
+        int high = nullsFrom[Column.NORMALIZED_TITLE.ordinal()];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rows.normalizedTitles[order[mid]].compareTo(normalizedTitle) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < nullsFrom[Column.NORMALIZED_TITLE.ordinal()] && rows.normalizedTitles[order[low]].equals(normalizedTitle)
+                ? movieAt(order[low])
+                : null;
+    }
+
+    public List<Movie> findAll() {
+        List<Movie> movies = new ArrayList<>(rows.size);
+        forEach(movies::add);
+        return movies;
+    }
+
+    public void forEach(Consumer<Movie> consumer) {
+        for (int row = 0; row < rows.size; row++) {
+            consumer.accept(movieAt(row));
+        }
+    }
+
+    public List<Movie> findMatching(MovieCriteria criteria) {
+        List<Movie> movies = new ArrayList<>();
+        for (int row = 0; row < rows.size; row++) {
+            if (matches(row, criteria)) {
+                movies.add(movieAt(row));
+            }
+        }
+        return movies;
+    }
+
+    /**
+     * Same rows and order as {@code MovieRepository#findPage}: by sort key then id, rows without a key last.
+     */
+    public List<Movie> findPage(MovieCriteria criteria, MovieSort sort, PageCursor after, int limit) {
+        List<Movie> page = new ArrayList<>(Math.min(limit, rows.size));
+        if (sort == MovieSort.ID) {
+            int from = after == null ? 0 : firstIdAfter(after.getLastId(), 0, rows.size, null);
+            for (int row = from; row < rows.size && page.size() < limit; row++) {
+                if (matches(row, criteria)) {
+                    page.add(movieAt(row));
+                }
+            }
+            return page;
+        }
+        Column column = Column.of(sort);
+        int[] order = orders[column.ordinal()];
+        int from;
+        if (after == null) {
+            from = 0;
+        } else if (after.isInNulls()) {
+            from = firstIdAfter(after.getLastId(), nullsFrom[column.ordinal()], order.length, order);
+        } else {
+            from = firstKeyAfter(column, order, after.getLastKey(), after.getLastId());
+        }
+        for (int at = from; at < order.length && page.size() < limit; at++) {
+            if (matches(order[at], criteria)) {
+                page.add(movieAt(order[at]));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * New snapshot with every id in {@code changedIds} (sorted, distinct) replaced by its entry in
+     * {@code present} (sorted by id), or removed when it has none.
+     */
+    public CatalogueSnapshot withChanges(long[] changedIds, List<Movie> present, Map<String, String> stringPool, Instant now) {
+        int removed = 0;
+        for (long changedId : changedIds) {
+            if (Arrays.binarySearch(rows.ids, 0, rows.size, changedId) >= 0) {
+                removed++;
+            }
+        }
+        Rows changed = new Rows(rows.size - removed + present.size(), stringPool);
+        int[] oldToNew = new int[rows.size];
+        long changedTitleBytes = titleBytes;
+        int[] added = new int[present.size()];
+        int addedCount = 0;
+        int old = 0;
+        int next = 0;
+        for (long changedId : changedIds) {
+            int at = Arrays.binarySearch(rows.ids, old, rows.size, changedId);
+            int runEnd = at >= 0 ? at : -at - 1;
+            old = copyRun(changed, old, runEnd, oldToNew);
+            if (at >= 0) {
+                oldToNew[at] = -1;
+                changedTitleBytes -= titleBytes(rows, at);
+                old = at + 1;
+            }
+            if (next < present.size() && present.get(next).getMovieId() == changedId) {
+                added[addedCount] = changed.add(present.get(next));
+                changedTitleBytes += titleBytes(changed, added[addedCount]);
+                addedCount++;
+                next++;
+            }
+        }
+        copyRun(changed, old, rows.size, oldToNew);
+        changed.trim();
+
+        int[][] mergedOrders = new int[orders.length][];
+        int[] kept = new int[rows.size];
+        for (Column column : Column.values()) {
+            int[] previous = orders[column.ordinal()];
+            int keptCount = 0;
+            for (int row : previous) {
+                if (oldToNew[row] >= 0) {
+                    kept[keptCount++] = oldToNew[row];
+                }
+            }
+            int[] inserted = Arrays.copyOf(added, addedCount);
+            sort(inserted, column, changed);
+            mergedOrders[column.ordinal()] = insert(kept, keptCount, inserted, column, changed);
+        }
+        return new CatalogueSnapshot(generation + 1, now, false, changed, mergedOrders, changedTitleBytes);
+    }
+
+    private int copyRun(Rows target, int from, int to, int[] oldToNew) {
+        int start = target.copy(rows, from, to - from);
+        for (int row = from; row < to; row++) {
+            oldToNew[row] = start + row - from;
+        }
+        return to;
+    }
+
+    private boolean matches(int row, MovieCriteria criteria) {
+        if (!criteria.getStatuses().isEmpty()
+                && (rows.statuses[row] == NO_STATUS || !criteria.getStatuses().contains(STATUSES[rows.statuses[row]]))) {
+            return false;
+        }
+        return atLeast(rows.ratingTenths[row], criteria.getMinRatingTenths())
+                && atMost(rows.ratingTenths[row], criteria.getMaxRatingTenths())
+                && atLeast(rows.releaseYears[row], criteria.getFromYear())
+                && atMost(rows.releaseYears[row], criteria.getToYear())
+                && atMost(rows.durationMinutes[row], criteria.getMaxDurationMinutes());
+    }
+
+    private static boolean atLeast(int value, Integer bound) {
+        return bound == null || (value != NONE && value >= bound);
+    }
+
+    private static boolean atMost(int value, Integer bound) {
+        return bound == null || (value != NONE && value <= bound);
+    }
+
+    private int firstIdAfter(long lastId, int from, int to, int[] order) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long id = rows.ids[order == null ? mid : order[mid]];
+            if (id <= lastId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstKeyAfter(Column column, int[] order, String lastKey, long lastId) {
+        int low = 0;
+        int high = nullsFrom[column.ordinal()];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int row = order[mid];
+            int byKey = column == Column.TITLE
+                    ? rows.titles[row].compareTo(lastKey)
+                    : Integer.compare(column.intKey(rows, row), Integer.parseInt(lastKey));
+            if (byKey < 0 || (byKey == 0 && rows.ids[row] <= lastId)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstNull(Column column, int[] order) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (column.isNull(rows, order[mid])) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private Movie movieAt(int row) {
+        return Movie.restore(
+                rows.ids[row],
+                rows.versions[row],
+                rows.titles[row],
+                rows.normalizedTitles[row],
+                rows.years[row],
+                boxed(rows.releaseYears[row]),
+                rows.statuses[row] == NO_STATUS ? null : STATUSES[rows.statuses[row]],
+                rows.imdbRatings[row],
+                boxed(rows.ratingTenths[row]),
+                rows.durations[row],
+                boxed(rows.durationMinutes[row]),
+                rows.enrichmentPending[row] < 0 ? null : rows.enrichmentPending[row] == 1,
+                rows.lastEnrichedAt[row] == NO_INSTANT ? null : Instant.ofEpochMilli(rows.lastEnrichedAt[row]));
+    }
+
+    private static Integer boxed(int value) {
+        return value == NONE ? null : value;
+    }
+
+    private static long titleBytes(Rows rows, int row) {
+        long bytes = stringBytes(rows.titles[row]);
+        if (rows.normalizedTitles[row] != rows.titles[row]) {
+            bytes += stringBytes(rows.normalizedTitles[row]);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        // String header and fields, then the byte[] header and contents rounded up to 8 bytes
+        return value == null ? 0 : 24 + ((16 + value.length() + 7) & ~7);
+    }
+
+    private static void sort(int[] order, Column column, Rows rows) {
+        if (column == Column.YEAR || column == Column.RATING) {
+            // key and row packed into one long, so a primitive sort orders by key, then id, nulls last
+            long[] packed = new long[order.length];
+            for (int at = 0; at < order.length; at++) {
+                int key = column.intKey(rows, order[at]);
+                packed[at] = (key == NONE ? NULL_KEY : (long) key << 31) | order[at];
+            }
+            Arrays.sort(packed);
+            for (int at = 0; at < order.length; at++) {
+                order[at] = (int) (packed[at] & Integer.MAX_VALUE);
+            }
+            return;
+        }
+        Integer[] boxed = new Integer[order.length];
+        for (int at = 0; at < order.length; at++) {
+            boxed[at] = order[at];
+        }
+        Arrays.sort(boxed, (a, b) -> column.compare(rows, a, b));
+        for (int at = 0; at < order.length; at++) {
+            order[at] = boxed[at];
+        }
+    }
+
+    private static int[] insert(int[] kept, int keptCount, int[] inserted, Column column, Rows rows) {
+        int[] merged = new int[keptCount + inserted.length];
+        int from = 0;
+        int at = 0;
+        for (int row : inserted) {
+            int low = from;
+            int high = keptCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (column.compare(rows, kept[mid], row) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            System.arraycopy(kept, from, merged, at, low - from);
+            at += low - from;
+            from = low;
+            merged[at++] = row;
+        }
+        System.arraycopy(kept, from, merged, at, keptCount - from);
+        return merged;
+    }
+
+    private enum Column {
+        NORMALIZED_TITLE, TITLE, YEAR, RATING;
+
+        static Column of(MovieSort sort) {
+            return switch (sort) {
+                case TITLE -> TITLE;
+                case YEAR -> YEAR;
+                case RATING -> RATING;
+                case ID -> throw new IllegalArgumentException("Rows are already in id order");
+            };
+        }
+
+        int intKey(Rows rows, int row) {
+            return this == YEAR ? rows.releaseYears[row] : rows.ratingTenths[row];
+        }
+
+        boolean isNull(Rows rows, int row) {
+            return switch (this) {
+                case NORMALIZED_TITLE -> rows.normalizedTitles[row] == null;
+                case TITLE -> rows.titles[row] == null;
+                case YEAR, RATING -> intKey(rows, row) == NONE;
+            };
+        }
+
+        // rows without a key go last; ties are broken by row, which is id order
+        int compare(Rows rows, int a, int b) {
+            boolean aNull = isNull(rows, a);
+            boolean bNull = isNull(rows, b);
+            int byKey;
+            if (aNull || bNull) {
+                byKey = Boolean.compare(aNull, bNull);
+            } else {
+                byKey = switch (this) {
+                    case NORMALIZED_TITLE -> rows.normalizedTitles[a].compareTo(rows.normalizedTitles[b]);
+                    case TITLE -> rows.titles[a].compareTo(rows.titles[b]);
+                    case YEAR, RATING -> Integer.compare(intKey(rows, a), intKey(rows, b));
+                };
+            }
+            return byKey != 0 ? byKey : Integer.compare(a, b);
+        }
+    }
+
+    public static final class Builder {
+
+        private final Rows rows;
+
+        private Builder(int expectedSize, Map<String, String> stringPool) {
+            this.rows = new Rows(expectedSize, stringPool);
+        }
+
+        /**
+         * Movies must be added in ascending id order.
+         */
+        public Builder add(Movie movie) {
+            if (rows.size > 0 && rows.ids[rows.size - 1] >= movie.getMovieId()) {
+                throw new IllegalArgumentException("Movies must be added in ascending id order");
+            }
+            rows.add(movie);
+            return this;
+        }
+
+        public CatalogueSnapshot build(long generation, Instant now) {
+            rows.trim();
+            long titleBytes = 0;
+            for (int row = 0; row < rows.size; row++) {
+                titleBytes += titleBytes(rows, row);
+            }
+            int[][] orders = new int[Column.values().length][];
+            for (Column column : Column.values()) {
+                int[] order = new int[rows.size];
+                Arrays.setAll(order, row -> row);
+                sort(order, column, rows);
+                orders[column.ordinal()] = order;
+            }
+            return new CatalogueSnapshot(generation, now, false, rows, orders, titleBytes);
+        }
+    }
+
+    private static final class Rows {
+
+        private final Map<String, String> stringPool;
+        private int size;
+        private long[] ids;
+        private long[] versions;
+        private String[] titles;
+        private String[] normalizedTitles;
+        private String[] years;
+        private int[] releaseYears;
+        private byte[] statuses;
+        private String[] imdbRatings;
+        private int[] ratingTenths;
+        private String[] durations;
+        private int[] durationMinutes;
+        private byte[] enrichmentPending;
+        private long[] lastEnrichedAt;
+
+        private Rows(int capacity, Map<String, String> stringPool) {
+            this.stringPool = stringPool;
+            resize(Math.max(capacity, 16));
+        }
+
+        int add(Movie movie) {
+            ensureCapacity();
+            int row = size++;
+            ids[row] = movie.getMovieId();
+            versions[row] = movie.getVersion() == null ? 0 : movie.getVersion();
+            titles[row] = movie.getTitle();
+            // most titles are already normalized; share the instance instead of keeping two equal strings
+            normalizedTitles[row] = movie.getTitle() != null && movie.getTitle().equals(movie.getNormalizedTitle())
+                    ? movie.getTitle()
+                    : movie.getNormalizedTitle();
+            years[row] = pooled(movie.getYear());
+            releaseYears[row] = movie.getReleaseYear() == null ? NONE : movie.getReleaseYear();
+            statuses[row] = movie.getStatus() == null ? NO_STATUS : (byte) movie.getStatus().ordinal();
+            imdbRatings[row] = pooled(movie.getImdbStatus());
+            ratingTenths[row] = movie.getRatingTenths() == null ? NONE : movie.getRatingTenths();
+            durations[row] = pooled(movie.getDuration());
+            durationMinutes[row] = movie.getDurationMinutes() == null ? NONE : movie.getDurationMinutes();
+            enrichmentPending[row] = movie.getEnrichmentPending() == null ? -1 : (byte) (movie.getEnrichmentPending() ? 1 : 0);
+            lastEnrichedAt[row] = movie.getLastEnrichedAt() == null ? NO_INSTANT : movie.getLastEnrichedAt().toEpochMilli();
+            return row;
+        }
+
+        int copy(Rows from, int fromRow, int count) {
+            if (size + count > ids.length) {
+                resize(Math.max(16, Math.max(size * 2, size + count)));
+            }
+            int row = size;
+            System.arraycopy(from.ids, fromRow, ids, row, count);
+            System.arraycopy(from.versions, fromRow, versions, row, count);
+            System.arraycopy(from.titles, fromRow, titles, row, count);
+            System.arraycopy(from.normalizedTitles, fromRow, normalizedTitles, row, count);
+            System.arraycopy(from.years, fromRow, years, row, count);
+            System.arraycopy(from.releaseYears, fromRow, releaseYears, row, count);
+            System.arraycopy(from.statuses, fromRow, statuses, row, count);
+            System.arraycopy(from.imdbRatings, fromRow, imdbRatings, row, count);
+            System.arraycopy(from.ratingTenths, fromRow, ratingTenths, row, count);
+            System.arraycopy(from.durations, fromRow, durations, row, count);
+            System.arraycopy(from.durationMinutes, fromRow, durationMinutes, row, count);
+            System.arraycopy(from.enrichmentPending, fromRow, enrichmentPending, row, count);
+            System.arraycopy(from.lastEnrichedAt, fromRow, lastEnrichedAt, row, count);
+            size += count;
+            return row;
+        }
+
+        void trim() {
+            if (ids.length != size) {
+                resize(size);
+            }
+        }
+
+        private String pooled(String value) {
+            return value == null ? null : stringPool.computeIfAbsent(value, key -> key);
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                resize(Math.max(16, size * 2));
+            }
+        }
+
+        private void resize(int capacity) {
+            ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+            versions = versions == null ? new long[capacity] : Arrays.copyOf(versions, capacity);
+            titles = titles == null ? new String[capacity] : Arrays.copyOf(titles, capacity);
+            normalizedTitles = normalizedTitles == null ? new String[capacity] : Arrays.copyOf(normalizedTitles, capacity);
+            years = years == null ? new String[capacity] : Arrays.copyOf(years, capacity);
+            releaseYears = releaseYears == null ? new int[capacity] : Arrays.copyOf(releaseYears, capacity);
+            statuses = statuses == null ? new byte[capacity] : Arrays.copyOf(statuses, capacity);
+            imdbRatings = imdbRatings == null ? new String[capacity] : Arrays.copyOf(imdbRatings, capacity);
+            ratingTenths = ratingTenths == null ? new int[capacity] : Arrays.copyOf(ratingTenths, capacity);
+            durations = durations == null ? new String[capacity] : Arrays.copyOf(durations, capacity);
+            durationMinutes = durationMinutes == null ? new int[capacity] : Arrays.copyOf(durationMinutes, capacity);
+            enrichmentPending = enrichmentPending == null ? new byte[capacity] : Arrays.copyOf(enrichmentPending, capacity);
+            lastEnrichedAt = lastEnrichedAt == null ? new long[capacity] : Arrays.copyOf(lastEnrichedAt, capacity);
+        }
+    }
+}
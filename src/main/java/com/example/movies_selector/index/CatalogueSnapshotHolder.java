@@ -0,0 +1,248 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieChangedEvent;
+import com.example.movies_selector.domain.MoviesBulkUpdatedEvent;
+import com.example.movies_selector.repository.MovieRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link CatalogueSnapshot} of every movie for serving reads without the database. Readers
+ * only dereference the current snapshot. Committed changes are collected as ids and applied by a
+ * single refresher thread, which reloads those rows and swaps in a new snapshot, so a burst of
+ * writes becomes one swap. When the database cannot be read the last snapshot stays in place,
+ * marked stale, until a scheduled retry succeeds. {@link #isCaughtUp()} tells whether every
+ * committed change has been applied, for reads that must see their own writes.
+ */
+@Component
+@ConditionalOnProperty(name = "movies.snapshot.enabled", havingValue = "true")
+public class CatalogueSnapshotHolder {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogueSnapshotHolder.class);
+
+    private static final int ID_LOOKUP_CHUNK = 1000;
+
+    private final MovieRepository movieRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Timer rebuildTimer;
+
+    private final Timer refreshTimer;
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor();
+
+    private final Set<Long> pendingIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    // every change is recorded (pending id or rebuild request) before it is counted, so a refresh that
+    // reads the count first and then applies what is recorded has applied at least that many
+    private final AtomicLong committedChanges = new AtomicLong();
+
+    private volatile long appliedChanges;
+
+    private final Object refreshLock = new Object();
+
+    // only touched by the thread holding refreshLock
+    private final Map<String, String> stringPool = new HashMap<>();
+
+    private volatile CatalogueSnapshot current;
+
+    @Autowired
+    public CatalogueSnapshotHolder(MovieRepository movieRepository, EntityManager entityManager,
+                                   PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildTimer = meterRegistry.timer("movies.snapshot.rebuild");
+        this.refreshTimer = meterRegistry.timer("movies.snapshot.refresh");
+        Gauge.builder("movies.snapshot.entries", this, holder -> holder.current == null ? 0 : holder.current.size())
+                .register(meterRegistry);
+        Gauge.builder("movies.snapshot.memory", this, holder -> holder.current == null ? 0 : holder.current.memoryBytes())
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder("movies.snapshot.stale", this, holder -> holder.current == null || holder.current.isStale() ? 1 : 0)
+                .register(meterRegistry);
+        Gauge.builder("movies.snapshot.pending", pendingIds, Set::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Null until the first rebuild has finished.
+     */
+    public CatalogueSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Whether the current snapshot includes every change committed so far.
+     */
+    public boolean isCaughtUp() {
+        return current != null && appliedChanges == committedChanges.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (refreshLock) {
+            rebuildRequested.set(false);
+            long applying = committedChanges.get();
+            // ids committed from here on are reapplied afterwards; the stream may or may not have seen them
+            List<Long> seenBefore = new ArrayList<>(pendingIds);
+            pendingIds.removeAll(seenBefore);
+            long started = System.nanoTime();
+            try {
+                int expectedSize = (int) movieRepository.count();
+                CatalogueSnapshot.Builder builder = CatalogueSnapshot.builder(expectedSize, stringPool);
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<Movie> movies = movieRepository.streamAll()) {
+                        movies.forEach(movie -> {
+                            builder.add(movie);
+                            entityManager.detach(movie);
+                        });
+                    }
+                });
+                long generation = current == null ? 1 : current.getGeneration() + 1;
+                current = builder.build(generation, Instant.now());
+                markApplied(applying);
+            } catch (DataAccessException | TransactionException e) {
+                rebuildRequested.set(true);
+                markStale();
+                log.warn("Catalogue snapshot rebuild failed, serving the previous snapshot", e);
+                return;
+            }
+            long elapsed = System.nanoTime() - started;
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Catalogue snapshot rebuilt: {} movies, {} bytes ({} bytes per 100k movies), {} ms",
+                    current.size(), current.memoryBytes(), bytesPer100k(current), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        if (!pendingIds.isEmpty()) {
+            refresher.execute(this::refresh);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        pendingIds.add(event.movieId());
+        committedChanges.incrementAndGet();
+        refresher.execute(this::refresh);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMoviesBulkUpdated(MoviesBulkUpdatedEvent event) {
+        if (event.movieIds() == null) {
+            rebuildRequested.set(true);
+        } else {
+            pendingIds.addAll(event.movieIds());
+        }
+        committedChanges.incrementAndGet();
+        refresher.execute(this::refresh);
+    }
+
+    @Scheduled(fixedDelayString = "${movies.snapshot.retry-interval:PT30S}", initialDelayString = "${movies.snapshot.retry-interval:PT30S}")
+    public void retryIfStale() {
+        CatalogueSnapshot snapshot = current;
+        if (snapshot == null || snapshot.isStale()) {
+            refresher.execute(this::refresh);
+        }
+    }
+
+    /**
+     * Applies everything committed so far; runs on the refresher thread, or directly when a caller
+     * needs the snapshot to have caught up.
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            long applying = committedChanges.get();
+            if (current == null || rebuildRequested.get()) {
+                rebuild();
+                return;
+            }
+            List<Long> ids = new ArrayList<>(pendingIds);
+            if (ids.isEmpty()) {
+                markApplied(applying);
+                return;
+            }
+            pendingIds.removeAll(ids);
+            long started = System.nanoTime();
+            List<Movie> present;
+            try {
+                present = load(ids);
+            } catch (DataAccessException | TransactionException e) {
+                pendingIds.addAll(ids);
+                markStale();
+                log.warn("Catalogue snapshot refresh failed for {} movies, serving the previous snapshot", ids.size(), e);
+                return;
+            }
+            long[] changedIds = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+            current = current.withChanges(changedIds, present, stringPool, Instant.now());
+            markApplied(applying);
+            refreshTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<Movie> load(List<Long> ids) {
+        List<Movie> present = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_LOOKUP_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + ID_LOOKUP_CHUNK));
+            readOnlyTransaction.executeWithoutResult(status -> movieRepository.findAllById(chunk).forEach(present::add));
+        }
+        present.sort(Comparator.comparing(Movie::getMovieId));
+        return present;
+    }
+
+    private void markApplied(long changes) {
+        appliedChanges = Math.max(appliedChanges, changes);
+    }
+
+    private void markStale() {
+        CatalogueSnapshot snapshot = current;
+        if (snapshot != null) {
+            current = snapshot.asStale();
+        }
+    }
+
+    private static long bytesPer100k(CatalogueSnapshot snapshot) {
+        return snapshot.size() == 0 ? 0 : snapshot.memoryBytes() * 100_000 / snapshot.size();
+    }
+}
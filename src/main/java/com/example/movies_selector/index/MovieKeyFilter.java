@@ -0,0 +1,218 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.MovieChangedEvent;
+import com.example.movies_selector.domain.MovieKey;
+import com.example.movies_selector.domain.TitleNormalizer;
+import com.example.movies_selector.repository.MovieRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over the (normalized title, year) keys of stored movies, so most new movies skip the
+ * existence query before their insert.
+ * Deleted movies stay in the filter until the next rebuild; they only cost an exact query.
+ */
+@Component
+public class MovieKeyFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieKeyFilter.class);
+
+    private final MovieRepository movieRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final int expectedMovies;
+
+    private final double falsePositiveRate;
+
+    private final Timer rebuildTimer;
+
+    private final Counter negatives;
+
+    private final Counter confirmed;
+
+    private final Counter falsePositives;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private BloomFilter filter;
+
+    private List<MovieChangedEvent> changesDuringRebuild;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public MovieKeyFilter(MovieRepository movieRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                          @Value("${movies.key-filter.expected-movies:100000}") int expectedMovies,
+                          @Value("${movies.key-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.movieRepository = movieRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedMovies = expectedMovies;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedMovies, falsePositiveRate);
+        this.rebuildTimer = meterRegistry.timer("movies.key-filter.rebuild");
+        this.negatives = checks(meterRegistry, "negative");
+        this.confirmed = checks(meterRegistry, "confirmed");
+        this.falsePositives = checks(meterRegistry, "false-positive");
+        Gauge.builder("movies.key-filter.entries", this, MovieKeyFilter::size).register(meterRegistry);
+        Gauge.builder("movies.key-filter.memory", this, MovieKeyFilter::memoryBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder("movies.key-filter.expected-false-positive-rate", this, MovieKeyFilter::expectedFalsePositiveRate).register(meterRegistry);
+        Gauge.builder("movies.key-filter.observed-false-positive-rate", this, MovieKeyFilter::observedFalsePositiveRate).register(meterRegistry);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("movies.key-filter.checks").tag("result", result).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // headroom so the rate holds while the catalogue grows
+        int movies = (int) Math.max(expectedMovies, 2 * movieRepository.count());
+        BloomFilter rebuilt = new BloomFilter(movies, falsePositiveRate);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<MovieKey> keys = movieRepository.streamKeys()) {
+                    keys.forEach(key -> add(rebuilt, key.normalizedTitle(), key.year()));
+                }
+            });
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(change -> apply(rebuilt, change));
+                changesDuringRebuild = null;
+                filter = rebuilt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Movie key filter rebuilt: {} keys, {} bytes, {} ms", size(), memoryBytes(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.deleted()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            apply(filter, event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a movie with this normalized title and year is stored, querying the database only when the filter cannot rule it out.
+     */
+    public boolean containsKey(String normalizedTitle, String year) {
+        if (!mightContain(normalizedTitle, year)) {
+            negatives.increment();
+            return false;
+        }
+        boolean exists = movieRepository.existsByNormalizedTitleAndYear(normalizedTitle, year);
+        (exists ? confirmed : falsePositives).increment();
+        return exists;
+    }
+
+    public boolean mightContain(String normalizedTitle, String year) {
+        return mightContain(keyOf(normalizedTitle, year));
+    }
+
+    private boolean mightContain(String key) {
+        if (!ready) {
+            return true;
+        }
+        lock.readLock().lock();
+        try {
+            return filter.mightContain(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return filter.insertions();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return filter.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double expectedFalsePositiveRate() {
+        lock.readLock().lock();
+        try {
+            return filter.expectedFalsePositiveRate();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Share of titles absent from the database that the filter still reported as possibly present.
+     */
+    public double observedFalsePositiveRate() {
+        double absent = negatives.count() + falsePositives.count();
+        return absent == 0 ? 0 : falsePositives.count() / absent;
+    }
+
+    private void apply(BloomFilter target, MovieChangedEvent event) {
+        if (!event.deleted() && event.title() != null) {
+            add(target, TitleNormalizer.normalize(event.title()), event.year());
+        }
+    }
+
+    private static void add(BloomFilter target, String normalizedTitle, String year) {
+        target.add(keyOf(normalizedTitle, year));
+    }
+
+    private static String keyOf(String normalizedTitle, String year) {
+        return normalizedTitle + "|" + year;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.MovieChangedEvent;
+import com.example.movies_selector.domain.MovieRating;
+import com.example.movies_selector.repository.MovieRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process index of movie ids ordered by (rating in tenths, id), kept in sync from
+ * {@link MovieChangedEvent}s after each commit. Ratings are held in one sorted id array per tenth.
+ */
+@Component
+@ConditionalOnProperty(name = "movies.rating-index.enabled", havingValue = "true")
+public class RatingIndex {
+
+    static final int MAX_TENTHS = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(RatingIndex.class);
+
+    private final MovieRepository movieRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Timer rebuildTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Buckets buckets = new Buckets(0);
+
+    private List<MovieChangedEvent> changesDuringRebuild;
+
+    private volatile boolean ready;
+
+    @Autowired
+    public RatingIndex(MovieRepository movieRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildTimer = meterRegistry.timer("movies.rating-index.rebuild");
+        Gauge.builder("movies.rating-index.entries", this, RatingIndex::size).register(meterRegistry);
+        Gauge.builder("movies.rating-index.memory", this, RatingIndex::memoryBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Buckets rebuilt = new Buckets((int) movieRepository.count());
+        boolean complete = false;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<MovieRating> ratings = movieRepository.streamRatings()) {
+                    ratings.forEach(rating -> rebuilt.put(rating.movieId(), rating.ratingTenths()));
+                }
+            });
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // a failed rebuild keeps the previous buckets, which the listener has kept current
+                if (complete) {
+                    changesDuringRebuild.forEach(rebuilt::apply);
+                    buckets = rebuilt;
+                }
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        ready = true;
+
+        long elapsed = System.nanoTime() - started;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Rating index rebuilt: {} entries, {} bytes, {} ms", size(), memoryBytes(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            buckets.apply(event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long[] idsAtLeast(int minimumTenths) {
+        lock.readLock().lock();
+        try {
+            return buckets.idsAtLeast(minimumTenths);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return buckets.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return buckets.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static final class Buckets {
+
+        private final long[][] ids = new long[MAX_TENTHS + 1][];
+        private final int[] sizes = new int[MAX_TENTHS + 1];
+        private final LongIntHashMap bucketOf;
+
+        Buckets(int expectedSize) {
+            Arrays.fill(ids, new long[0]);
+            bucketOf = new LongIntHashMap(expectedSize);
+        }
+
+        void apply(MovieChangedEvent event) {
+            if (event.deleted()) {
+                remove(event.movieId());
+            } else {
+                put(event.movieId(), event.ratingTenths());
+            }
+        }
+
+        void put(long movieId, Integer ratingTenths) {
+            remove(movieId);
+            // negative ratings can never match a query; anything above 10.0 matches every query
+            if (ratingTenths == null || ratingTenths < 0) {
+                return;
+            }
+            int bucket = Math.min(ratingTenths, MAX_TENTHS);
+            long[] bucketIds = ids[bucket];
+            int size = sizes[bucket];
+            int insertAt = -Arrays.binarySearch(bucketIds, 0, size, movieId) - 1;
+            if (size == bucketIds.length) {
+                bucketIds = Arrays.copyOf(bucketIds, Math.max(8, size * 2));
+                ids[bucket] = bucketIds;
+            }
+            System.arraycopy(bucketIds, insertAt, bucketIds, insertAt + 1, size - insertAt);
+            bucketIds[insertAt] = movieId;
+            sizes[bucket] = size + 1;
+            bucketOf.put(movieId, bucket);
+        }
+
+        void remove(long movieId) {
+            int bucket = bucketOf.remove(movieId);
+            if (bucket == LongIntHashMap.MISSING) {
+                return;
+            }
+            long[] bucketIds = ids[bucket];
+            int size = sizes[bucket];
+            int at = Arrays.binarySearch(bucketIds, 0, size, movieId);
+            System.arraycopy(bucketIds, at + 1, bucketIds, at, size - at - 1);
+            sizes[bucket] = size - 1;
+        }
+
+        long[] idsAtLeast(int minimumTenths) {
+            int from = Math.max(0, minimumTenths);
+            int total = 0;
+            for (int bucket = from; bucket <= MAX_TENTHS; bucket++) {
+                total += sizes[bucket];
+            }
+            long[] result = new long[total];
+            int at = 0;
+            for (int bucket = from; bucket <= MAX_TENTHS; bucket++) {
+                System.arraycopy(ids[bucket], 0, result, at, sizes[bucket]);
+                at += sizes[bucket];
+            }
+            return result;
+        }
+
+        int size() {
+            return bucketOf.size();
+        }
+
+        long memoryBytes() {
+            long bytes = 16L + ids.length * 8L + 16L + sizes.length * 4L + bucketOf.memoryBytes();
+            for (long[] bucketIds : ids) {
+                bytes += 16L + bucketIds.length * 8L;
+            }
+            return bytes;
+        }
+    }
+}
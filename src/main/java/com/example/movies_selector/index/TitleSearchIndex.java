@@ -0,0 +1,179 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.MovieChangedEvent;
+import com.example.movies_selector.domain.MovieTitle;
+import com.example.movies_selector.domain.TitleSearchHit;
+import com.example.movies_selector.repository.MovieRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-process {@link TitleTrigramIndex} over every movie title, kept in sync from {@link MovieChangedEvent}s
+ * after each commit. Without it, and until its first rebuild has finished, title searches fall back
+ * to prefix matches in the database.
+ */
+@Component
+@ConditionalOnProperty(name = "movies.title-search.enabled", havingValue = "true")
+public class TitleSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleSearchIndex.class);
+
+    private final MovieRepository movieRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Timer rebuildTimer;
+
+    private final Timer searchTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private TitleTrigramIndex index = new TitleTrigramIndex();
+
+    private List<MovieChangedEvent> changesDuringRebuild;
+
+    private volatile boolean ready;
+
+    // truncated searches counted by indexes already replaced, so the counter never goes back
+    private long truncatedBeforeRebuild;
+
+    @Autowired
+    public TitleSearchIndex(MovieRepository movieRepository, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildTimer = meterRegistry.timer("movies.title-search.rebuild");
+        this.searchTimer = Timer.builder("movies.title-search.queries")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("movies.title-search.entries", this, TitleSearchIndex::size).register(meterRegistry);
+        Gauge.builder("movies.title-search.memory", this, TitleSearchIndex::memoryBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        FunctionCounter.builder("movies.title-search.truncated", this, TitleSearchIndex::truncatedSearches)
+                .description("Fuzzy searches that stopped scanning trigram lists at the posting budget")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TitleTrigramIndex rebuilt = new TitleTrigramIndex();
+        boolean complete = false;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<MovieTitle> titles = movieRepository.streamTitles()) {
+                    titles.forEach(title -> rebuilt.put(title.movieId(), title.title()));
+                }
+            });
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // a failed rebuild keeps the previous index, which the listener has kept current
+                if (complete) {
+                    changesDuringRebuild.forEach(change -> apply(rebuilt, change));
+                    truncatedBeforeRebuild += index.truncatedSearches();
+                    index = rebuilt;
+                }
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        ready = true;
+
+        long elapsed = System.nanoTime() - started;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Title search index rebuilt: {} titles, {} bytes, {} ms", size(), memoryBytes(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(index, event);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<TitleSearchHit> search(String query, int limit) {
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long truncatedSearches() {
+        lock.readLock().lock();
+        try {
+            return truncatedBeforeRebuild + index.truncatedSearches();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            return index.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(TitleTrigramIndex target, MovieChangedEvent event) {
+        if (event.deleted()) {
+            target.remove(event.movieId());
+        } else {
+            target.put(event.movieId(), event.title());
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.TitleNormalizer;
+import com.example.movies_selector.domain.TitleSearchHit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prefix and typo-tolerant title search. Normalized titles are kept in a sorted map for prefix
+ * matches; every title is also split into trigrams with sorted int posting lists, and fuzzy matches
+ * are ranked by Dice similarity of their trigram sets.
+ * Not thread-safe for writes: concurrent searches are fine once writers are excluded.
+ */
+public class TitleTrigramIndex {
+
+    static final double MIN_SIMILARITY = 0.4;
+
+    // keeps the number of query trigrams, and so every per-document count, within a byte
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    // postings scanned per fuzzy search, at least the minimum and otherwise a fraction of the titles
+    private static final int MIN_POSTING_BUDGET = 4096;
+
+    private static final int POSTING_BUDGET_FRACTION = 16;
+
+    // candidates scored per fuzzy search, after ranking them by the trigrams counted while scanning
+    static final int MAX_SCORED = 512;
+
+    // prefix matches ranked per search; a shorter title scores higher, wherever it sorts
+    static final int MAX_PREFIX_SCANNED = 4096;
+
+    private static final Comparator<TitleSearchHit> BEST_FIRST = Comparator.comparingDouble(TitleSearchHit::score).reversed()
+            .thenComparingLong(TitleSearchHit::movieId);
+
+    private long[] movieIds = new long[1024];
+    private String[] titles = new String[1024];
+    private String[] keys = new String[1024];
+    private int[] gramCounts = new int[1024];
+    private int docCount;
+    private int liveCount;
+
+    private LongIntHashMap docOf = new LongIntHashMap();
+    private LongIntHashMap postingOf = new LongIntHashMap();
+    private int[][] postings = new int[1024][];
+    private int[] postingSizes = new int[1024];
+    private int postingCount;
+
+    private TreeMap<String, Integer> byPrefix = new TreeMap<>();
+
+    private final ThreadLocal<byte[]> counts = ThreadLocal.withInitial(() -> new byte[0]);
+
+    private final LongAdder truncatedSearches = new LongAdder();
+
+    public void put(long movieId, String title) {
+        int existing = docOf.get(movieId);
+        if (existing != LongIntHashMap.MISSING) {
+            if (Objects.equals(titles[existing], title)) {
+                return;
+            }
+            remove(movieId);
+        }
+        String key = TitleNormalizer.normalize(title);
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        if (docCount == movieIds.length) {
+            int capacity = docCount * 2;
+            movieIds = Arrays.copyOf(movieIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            gramCounts = Arrays.copyOf(gramCounts, capacity);
+        }
+        int doc = docCount++;
+        movieIds[doc] = movieId;
+        titles[doc] = title;
+        keys[doc] = key;
+        long[] grams = gramsOf(key);
+        gramCounts[doc] = grams.length;
+        for (long gram : grams) {
+            appendPosting(gram, doc);
+        }
+        byPrefix.put(key + '\u0000' + doc, doc);
+        docOf.put(movieId, doc);
+        liveCount++;
+    }
+
+    public void remove(long movieId) {
+        int doc = docOf.remove(movieId);
+        if (doc == LongIntHashMap.MISSING) {
+            return;
+        }
+        byPrefix.remove(keys[doc] + '\u0000' + doc);
+        titles[doc] = null;
+        keys[doc] = null;
+        liveCount--;
+        // posting lists still name removed documents; rebuild once they are the majority
+        if (docCount - liveCount > Math.max(1024, liveCount)) {
+            compact();
+        }
+    }
+
+    public List<TitleSearchHit> search(String query, int limit) {
+        String key = TitleNormalizer.normalize(query);
+        if (key != null && key.length() > MAX_QUERY_LENGTH) {
+            key = key.substring(0, MAX_QUERY_LENGTH);
+        }
+        if (key == null || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<TitleSearchHit> hits = new ArrayList<>(limit);
+        Set<Integer> prefixDocs = new HashSet<>();
+        for (int doc : topPrefixMatches(key, limit)) {
+            hits.add(new TitleSearchHit(movieIds[doc], titles[doc], 1.0 + (double) key.length() / keys[doc].length()));
+            prefixDocs.add(doc);
+        }
+        hits.sort(BEST_FIRST);
+        if (hits.size() < limit) {
+            hits.addAll(similar(key, limit - hits.size(), prefixDocs));
+        }
+        return hits;
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Searches that ran out of prefix matches, posting budget or scored candidates before every possible match was checked.
+     */
+    public long truncatedSearches() {
+        return truncatedSearches.sum();
+    }
+
+    /**
+     * Approximate heap footprint, assuming compressed references and compact (Latin-1) strings.
+     */
+    public long memoryBytes() {
+        long bytes = 16L + movieIds.length * 8L + 3 * (16L + titles.length * 4L)
+                + docOf.memoryBytes() + postingOf.memoryBytes()
+                + 16L + postings.length * 4L + 16L + postingSizes.length * 4L;
+        for (int slot = 0; slot < postingCount; slot++) {
+            bytes += 16L + postings[slot].length * 4L;
+        }
+        for (int doc = 0; doc < docCount; doc++) {
+            if (keys[doc] != null) {
+                // title and key strings, plus the prefix map entry and its key string
+                bytes += 2 * (40L + keys[doc].length()) + 40L + 48L + keys[doc].length();
+            }
+        }
+        return bytes;
+    }
+
+    // the limit best prefix matches among the first MAX_PREFIX_SCANNED, kept in a heap with the worst on top
+    private List<Integer> topPrefixMatches(String key, int limit) {
+        PriorityQueue<Integer> best = new PriorityQueue<>(Comparator.<Integer>comparingInt(doc -> keys[doc].length())
+                .thenComparingLong(doc -> movieIds[doc]).reversed());
+        int scanned = 0;
+        for (int doc : byPrefix.subMap(key, key + Character.MAX_VALUE).values()) {
+            if (scanned++ == MAX_PREFIX_SCANNED) {
+                truncatedSearches.increment();
+                break;
+            }
+            best.add(doc);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        return new ArrayList<>(best);
+    }
+
+    private List<TitleSearchHit> similar(String key, int limit, Set<Integer> exclude) {
+        long[] grams = gramsOf(key);
+        int[] slots = new int[grams.length];
+        long[] bySize = new long[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            slots[i] = postingOf.get(grams[i]);
+            int size = slots[i] == LongIntHashMap.MISSING ? 0 : postingSizes[slots[i]];
+            bySize[i] = ((long) size << 32) | i;
+        }
+        Arrays.sort(bySize);
+
+        // Dice >= MIN_SIMILARITY needs at least minCommon shared trigrams, so every match appears in one
+        // of the rarest grams.length - minCommon + 1 lists. Those are scanned rarest first until the posting
+        // budget is spent, so titles sharing little with the query but common grams (" th", "the") can be
+        // missed; such searches are counted in truncatedSearches().
+        int minCommon = Math.max(1, (int) Math.ceil(MIN_SIMILARITY * grams.length / (2 - MIN_SIMILARITY)));
+        int candidateLists = grams.length - minCommon + 1;
+        int postingBudget = Math.max(MIN_POSTING_BUDGET, liveCount / POSTING_BUDGET_FRACTION);
+        byte[] common = scratch();
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        int maxCommon = 0;
+        int scanned = 0;
+        long scannedPostings = 0;
+        boolean truncated = false;
+        for (; scanned < candidateLists; scanned++) {
+            int slot = slots[(int) bySize[scanned]];
+            if (slot == LongIntHashMap.MISSING) {
+                continue;
+            }
+            if (touchedCount > 0 && scannedPostings + postingSizes[slot] > postingBudget) {
+                truncated = true;
+                break;
+            }
+            int[] posting = postings[slot];
+            for (int j = 0, size = postingSizes[slot]; j < size; j++) {
+                int doc = posting[j];
+                if (common[doc]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = doc;
+                }
+                maxCommon = Math.max(maxCommon, common[doc]);
+            }
+            scannedPostings += postingSizes[slot];
+        }
+        int unscanned = 0;
+        for (int i = scanned; i < grams.length; i++) {
+            if (slots[(int) bySize[i]] != LongIntHashMap.MISSING) {
+                unscanned++;
+            }
+        }
+
+        // second stage: score at most MAX_SCORED candidates, most scanned grams in common first, against
+        // their own trigrams; stop once even a full match of the unscanned grams cannot beat the current top K
+        int[] bucketEnd = new int[maxCommon + 2];
+        for (int t = 0; t < touchedCount; t++) {
+            bucketEnd[common[touched[t]]]++;
+        }
+        for (int count = maxCommon; count > 0; count--) {
+            bucketEnd[count - 1] += bucketEnd[count];
+        }
+        int[] ordered = new int[touchedCount];
+        for (int t = 0; t < touchedCount; t++) {
+            ordered[--bucketEnd[common[touched[t]]]] = touched[t];
+        }
+
+        PriorityQueue<TitleSearchHit> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        long[] seen = new long[(grams.length + 63) >>> 6];
+        int scored = 0;
+        for (int o = 0; o < touchedCount; o++) {
+            int doc = ordered[o];
+            int reachable = common[doc] + unscanned;
+            if (best.size() == limit && 2.0 * reachable / (grams.length + reachable) <= best.peek().score()) {
+                break;
+            }
+            if (keys[doc] == null || exclude.contains(doc)) {
+                continue;
+            }
+            int docGrams = gramCounts[doc];
+            double upperBound = 2.0 * Math.min(reachable, docGrams) / (grams.length + docGrams);
+            if (upperBound < MIN_SIMILARITY || (best.size() == limit && upperBound <= best.peek().score())) {
+                continue;
+            }
+            if (scored++ == MAX_SCORED) {
+                truncated = true;
+                break;
+            }
+            double score = 2.0 * sharedGrams(grams, keys[doc], seen) / (grams.length + docGrams);
+            if (score < MIN_SIMILARITY || (best.size() == limit && score <= best.peek().score())) {
+                continue;
+            }
+            best.add(new TitleSearchHit(movieIds[doc], titles[doc], score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        for (int t = 0; t < touchedCount; t++) {
+            common[touched[t]] = 0;
+        }
+        if (truncated) {
+            truncatedSearches.increment();
+        }
+
+        List<TitleSearchHit> hits = new ArrayList<>(best);
+        hits.sort(BEST_FIRST);
+        return hits;
+    }
+
+    // distinct query trigrams found in the key, marked in seen so a repeated trigram counts once; the
+    // key is read as if padded like in gramsOf, without building the padded string
+    private static int sharedGrams(long[] queryGrams, String key, long[] seen) {
+        Arrays.fill(seen, 0);
+        int shared = 0;
+        long gram = (1L << 48) | ((long) ' ' << 16) | ' ';
+        for (int i = 0; i <= key.length(); i++) {
+            char next = i < key.length() ? key.charAt(i) : ' ';
+            gram = (1L << 48) | ((gram & 0xFFFFFFFFL) << 16) | next;
+            int at = Arrays.binarySearch(queryGrams, gram);
+            if (at >= 0 && (seen[at >>> 6] & (1L << at)) == 0) {
+                seen[at >>> 6] |= 1L << at;
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    private byte[] scratch() {
+        byte[] scratch = counts.get();
+        if (scratch.length < docCount) {
+            scratch = new byte[movieIds.length];
+            counts.set(scratch);
+        }
+        return scratch;
+    }
+
+    private void appendPosting(long gram, int doc) {
+        int slot = postingOf.get(gram);
+        if (slot == LongIntHashMap.MISSING) {
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, postingCount * 2);
+                postingSizes = Arrays.copyOf(postingSizes, postingCount * 2);
+            }
+            slot = postingCount++;
+            postings[slot] = new int[4];
+            postingOf.put(gram, slot);
+        }
+        int size = postingSizes[slot];
+        if (size == postings[slot].length) {
+            postings[slot] = Arrays.copyOf(postings[slot], size + (size >> 1) + 1);
+        }
+        postings[slot][size] = doc;
+        postingSizes[slot] = size + 1;
+    }
+
+    private void compact() {
+        long[] liveIds = new long[liveCount];
+        String[] liveTitles = new String[liveCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (keys[doc] != null) {
+                liveIds[live] = movieIds[doc];
+                liveTitles[live++] = titles[doc];
+            }
+        }
+        movieIds = new long[Math.max(1024, live * 2)];
+        titles = new String[movieIds.length];
+        keys = new String[movieIds.length];
+        gramCounts = new int[movieIds.length];
+        docCount = 0;
+        liveCount = 0;
+        docOf = new LongIntHashMap(live);
+        postingOf = new LongIntHashMap();
+        postings = new int[1024][];
+        postingSizes = new int[1024];
+        postingCount = 0;
+        byPrefix = new TreeMap<>();
+        for (int i = 0; i < live; i++) {
+            put(liveIds[i], liveTitles[i]);
+        }
+    }
+
+    static long[] gramsOf(String key) {
+        String padded = "  " + key + " ";
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (1L << 48) | ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+}
@@ -2,9 +2,18 @@ package com.example.movies_selector.mapper;
 
 import com.example.movies_selector.domain.Movie;
 import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import com.example.movies_selector.domain.MoviePage;
+import com.example.movies_selector.domain.MoviePageDto;
+import com.example.movies_selector.domain.MovieRow;
+import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.domain.TitleSearchHit;
+import com.example.movies_selector.domain.TitleSearchHitDto;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,7 +26,8 @@ public class MoviesMapper {
                 movie.getYear(),
                 movie.getDuration(),
                 movie.getStatus().toString(),
-                movie.getImdbStatus()
+                movie.getImdbStatus(),
+                movie.getVersion()
         );
     }
 
@@ -26,4 +36,96 @@ public class MoviesMapper {
                 map(this::mapToMovieDto).
                 collect(Collectors.toList());
     }
+
+    public MovieDto mapToMovieDto(MovieRow row) {
+        return new MovieDto(row.movieId(), row.title(), row.year(), row.duration(), row.status(), row.imdbStatus(), row.version());
+    }
+
+    public List<MovieDto> mapRowsToMovieDtoList(List<MovieRow> rows) {
+        return rows.stream().
+                map(this::mapToMovieDto).
+                collect(Collectors.toList());
+    }
+
+    public List<TitleSearchHitDto> mapToTitleSearchHitDtoList(List<TitleSearchHit> hits) {
+        return hits.stream().
+                map(hit -> new TitleSearchHitDto(hit.movieId(), hit.title(), hit.score())).
+                collect(Collectors.toList());
+    }
+
+    public MoviePageDto mapToMoviePageDto(MoviePage page) {
+        return new MoviePageDto(mapToMovieDtoList(page.getMovies()), page.getNext());
+    }
+
+    public Movie mapToMovie(String requestedTitle, MovieInfoOMDBDto movieFromOMDB) {
+        Movie newMovie;
+        if (movieFromOMDB.getResponse().equals("False")) {
+            newMovie = new Movie(requestedTitle);
+        } else {
+            newMovie = new Movie(movieFromOMDB.getTitle());
+            newMovie.setYear(yearFrom(movieFromOMDB));
+            newMovie.setImdbStatus(ratingFrom(movieFromOMDB));
+            newMovie.setDuration(durationFrom(movieFromOMDB));
+        }
+        newMovie.setStatus(Status.WAITING_LIST);
+        newMovie.setLastEnrichedAt(Instant.now());
+        return newMovie;
+    }
+
+    /**
+     * The stored year, or null when it is missing or the "0" stand-in for N/A.
+     */
+    public String knownYear(Movie movie) {
+        String year = movie.getYear();
+        return year == null || year.isBlank() || year.equals("0") ? null : year;
+    }
+
+    /**
+     * Whether an OMDB answer can describe the stored movie: a known year is never overwritten by
+     * the year of another release with the same title.
+     */
+    public boolean isSameRelease(Movie movie, MovieInfoOMDBDto movieFromOMDB) {
+        return movieFromOMDB.getResponse().equals("False") || knownYear(movie) == null
+                || knownYear(movie).equals(yearFrom(movieFromOMDB));
+    }
+
+    public boolean applyOMDBDetails(Movie movie, MovieInfoOMDBDto movieFromOMDB) {
+        boolean changed = false;
+        if (!movieFromOMDB.getResponse().equals("False")) {
+            if (!Objects.equals(movie.getYear(), yearFrom(movieFromOMDB))) {
+                movie.setYear(yearFrom(movieFromOMDB));
+                changed = true;
+            }
+            if (!Objects.equals(movie.getImdbStatus(), ratingFrom(movieFromOMDB))) {
+                movie.setImdbStatus(ratingFrom(movieFromOMDB));
+                changed = true;
+            }
+            if (!Objects.equals(movie.getDuration(), durationFrom(movieFromOMDB))) {
+                movie.setDuration(durationFrom(movieFromOMDB));
+                changed = true;
+            }
+        }
+        movie.setEnrichmentPending(null);
+        movie.setLastEnrichedAt(Instant.now());
+        return changed;
+    }
+
+    public Movie mapToUnenrichedMovie(String requestedTitle) {
+        Movie newMovie = new Movie(requestedTitle);
+        newMovie.setStatus(Status.WAITING_LIST);
+        newMovie.setEnrichmentPending(true);
+        return newMovie;
+    }
+
+    public String yearFrom(MovieInfoOMDBDto movieFromOMDB) {
+        return movieFromOMDB.getYear() == null || (movieFromOMDB.getYear().equals("N/A")) ? "0" : movieFromOMDB.getYear();
+    }
+
+    private String ratingFrom(MovieInfoOMDBDto movieFromOMDB) {
+        return (movieFromOMDB.getImdbStatus() == null || movieFromOMDB.getImdbStatus().equalsIgnoreCase("N/A")) ? "0" : movieFromOMDB.getImdbStatus();
+    }
+
+    private String durationFrom(MovieInfoOMDBDto movieFromOMDB) {
+        return (movieFromOMDB.getDuration() == null || (movieFromOMDB.getDuration().equals("N/A")) ? null : movieFromOMDB.getDuration());
     }
+}
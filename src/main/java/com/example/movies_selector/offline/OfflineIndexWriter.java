@@ -0,0 +1,131 @@
+package com.example.movies_selector.offline;
+
+import com.example.movies_selector.domain.TitleNormalizer;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads tab separated metadata dumps ({@code title, year, rating, runtime}) and writes the index file
+ * mapped by {@link OfflineMovieIndex}.
+ *
+ * <pre>
+ * header   magic:int version:int count:int dataOffset:int watermark:long reserved:long
+ * slots    count x (hash:long recordOffset:int), sorted by hash
+ * records  keyLength:short key:char[] titleLength:short title:utf8 year:short rating:short runtime:short
+ * </pre>
+ */
+public final class OfflineIndexWriter {
+
+    static final int MAGIC = 0x4D564958;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int SLOT_BYTES = 12;
+
+    private OfflineIndexWriter() {
+    }
+
+    static long hash(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public static void readDump(Path dump, Map<String, OfflineMovieRecord> records) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(dump, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                if (columns.length < 4 || columns[0].isBlank() || columns[0].equalsIgnoreCase("title")) {
+                    continue;
+                }
+                String title = columns[0].trim();
+                String key = TitleNormalizer.normalize(title);
+                records.put(key, new OfflineMovieRecord(key, title,
+                        parseLeadingInt(columns[1]),
+                        parseRatingTenths(columns[2]),
+                        parseLeadingInt(columns[3])));
+            }
+        }
+    }
+
+    public static void write(Collection<OfflineMovieRecord> records, long watermark, Path target) throws IOException {
+        List<OfflineMovieRecord> sorted = new ArrayList<>(records);
+        sorted.sort(Comparator.comparingLong(record -> hash(record.key())));
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream(sorted.size() * 64);
+        DataOutputStream dataOut = new DataOutputStream(data);
+        ByteBuffer slots = ByteBuffer.allocate(sorted.size() * SLOT_BYTES);
+        for (OfflineMovieRecord record : sorted) {
+            slots.putLong(hash(record.key()));
+            slots.putInt(dataOut.size());
+            dataOut.writeShort(record.key().length());
+            dataOut.writeChars(record.key());
+            byte[] title = record.title().getBytes(StandardCharsets.UTF_8);
+            dataOut.writeShort(title.length);
+            dataOut.write(title);
+            dataOut.writeShort(record.year());
+            dataOut.writeShort(record.ratingTenths());
+            dataOut.writeShort(record.runtimeMinutes());
+        }
+        dataOut.flush();
+        slots.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(sorted.size());
+        header.putInt(HEADER_BYTES + sorted.size() * SLOT_BYTES);
+        header.putLong(watermark);
+        header.putLong(0L);
+        header.flip();
+
+        Path temporary = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header);
+            channel.write(slots);
+            channel.write(ByteBuffer.wrap(data.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int parseLeadingInt(String value) {
+        int result = 0;
+        int digits = 0;
+        for (int i = 0; i < value.length() && digits < 4; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            result = result * 10 + (c - '0');
+            digits++;
+        }
+        return digits == 0 ? -1 : result;
+    }
+
+    private static int parseRatingTenths(String value) {
+        try {
+            return (int) Math.round(Double.parseDouble(value.trim()) * 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.movies_selector.offline;
+
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.example.movies_selector.offline.OfflineIndexWriter.HEADER_BYTES;
+import static com.example.movies_selector.offline.OfflineIndexWriter.SLOT_BYTES;
+
+/**
+ * Memory-mapped, read-only title index built from bulk metadata dumps, consulted before OMDB.
+ * Disabled while {@code omdb.offline-index.path} is empty.
+ */
+@Component
+public class OfflineMovieIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OfflineMovieIndex.class);
+
+    private final String indexPath;
+
+    private final String dumpsDir;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private volatile MappedIndex current;
+
+    @Autowired
+    public OfflineMovieIndex(@Value("${omdb.offline-index.path:}") String indexPath,
+                             @Value("${omdb.offline-index.dumps-dir:}") String dumpsDir,
+                             MeterRegistry meterRegistry) {
+        this.indexPath = indexPath;
+        this.dumpsDir = dumpsDir;
+        this.hits = meterRegistry.counter("omdb.offline-index.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("omdb.offline-index.lookups", "result", "miss");
+        Gauge.builder("omdb.offline-index.entries", this, index -> index.size()).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() {
+        refresh();
+    }
+
+    public boolean isEnabled() {
+        return current != null;
+    }
+
+    public int size() {
+        MappedIndex index = current;
+        return index == null ? 0 : index.count;
+    }
+
+    public Optional<MovieInfoOMDBDto> lookup(String normalizedTitle) {
+        MappedIndex index = current;
+        if (index == null) {
+            return Optional.empty();
+        }
+        int record = index.find(normalizedTitle);
+        if (record < 0) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(index.toDto(record));
+    }
+
+    @Scheduled(fixedDelayString = "${omdb.offline-index.refresh-interval:PT1H}", initialDelayString = "${omdb.offline-index.refresh-interval:PT1H}")
+    public synchronized void refresh() {
+        if (indexPath.isBlank()) {
+            return;
+        }
+        Path index = Path.of(indexPath);
+        try {
+            MappedIndex existing = current;
+            if (existing == null && Files.exists(index)) {
+                existing = MappedIndex.map(index);
+            }
+            List<Path> newerDumps = dumpsNewerThan(existing == null ? 0 : existing.watermark);
+            if (!newerDumps.isEmpty()) {
+                long started = System.nanoTime();
+                Map<String, OfflineMovieRecord> records = new HashMap<>();
+                if (existing != null) {
+                    existing.forEach(record -> records.put(record.key(), record));
+                }
+                long watermark = existing == null ? 0 : existing.watermark;
+                for (Path dump : newerDumps) {
+                    OfflineIndexWriter.readDump(dump, records);
+                    watermark = Math.max(watermark, Files.getLastModifiedTime(dump).toMillis());
+                }
+                OfflineIndexWriter.write(records.values(), watermark, index);
+                existing = MappedIndex.map(index);
+                log.info("Offline index rebuilt from {} dump(s): {} titles in {} ms",
+                        newerDumps.size(), existing.count, (System.nanoTime() - started) / 1_000_000);
+            }
+            current = existing;
+        } catch (IOException e) {
+            log.warn("Could not refresh offline index {}, keeping the previous one", index, e);
+        }
+    }
+
+    private List<Path> dumpsNewerThan(long watermark) throws IOException {
+        if (dumpsDir.isBlank() || !Files.isDirectory(Path.of(dumpsDir))) {
+            return List.of();
+        }
+        List<Path> dumps = new ArrayList<>();
+        try (Stream<Path> files = Files.list(Path.of(dumpsDir))) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                if (Files.getLastModifiedTime(file).toMillis() > watermark) {
+                    dumps.add(file);
+                }
+            }
+        }
+        dumps.sort(Comparator.comparingLong(OfflineMovieIndex::lastModified));
+        return dumps;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    static final class MappedIndex {
+
+        private final MappedByteBuffer buffer;
+
+        private final int count;
+
+        private final int dataOffset;
+
+        private final long watermark;
+
+        private MappedIndex(MappedByteBuffer buffer) throws IOException {
+            if (buffer.getInt(0) != OfflineIndexWriter.MAGIC || buffer.getInt(4) != OfflineIndexWriter.VERSION) {
+                throw new IOException("Not an offline movie index");
+            }
+            this.buffer = buffer;
+            this.count = buffer.getInt(8);
+            this.dataOffset = buffer.getInt(12);
+            this.watermark = buffer.getLong(16);
+        }
+
+        static MappedIndex map(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                return new MappedIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        int find(String key) {
+            long hash = OfflineIndexWriter.hash(key);
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (buffer.getLong(HEADER_BYTES + middle * SLOT_BYTES) < hash) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            for (int slot = low; slot < count && buffer.getLong(HEADER_BYTES + slot * SLOT_BYTES) == hash; slot++) {
+                int record = dataOffset + buffer.getInt(HEADER_BYTES + slot * SLOT_BYTES + 8);
+                if (keyEquals(record, key)) {
+                    return record;
+                }
+            }
+            return -1;
+        }
+
+        private boolean keyEquals(int record, String key) {
+            int length = buffer.getShort(record) & 0xFFFF;
+            if (length != key.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer.getChar(record + 2 + 2 * i) != key.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        MovieInfoOMDBDto toDto(int record) {
+            OfflineMovieRecord entry = read(record);
+            return new MovieInfoOMDBDto(
+                    entry.title(),
+                    entry.year() < 0 ? "N/A" : String.valueOf(entry.year()),
+                    entry.ratingTenths() < 0 ? "N/A" : entry.ratingTenths() / 10 + "." + entry.ratingTenths() % 10,
+                    entry.runtimeMinutes() < 0 ? "N/A" : entry.runtimeMinutes() + " min",
+                    "True",
+                    null);
+        }
+
+        void forEach(Consumer<OfflineMovieRecord> action) {
+            for (int slot = 0; slot < count; slot++) {
+                action.accept(read(dataOffset + buffer.getInt(HEADER_BYTES + slot * SLOT_BYTES + 8)));
+            }
+        }
+
+        private OfflineMovieRecord read(int record) {
+            int keyLength = buffer.getShort(record) & 0xFFFF;
+            char[] key = new char[keyLength];
+            for (int i = 0; i < keyLength; i++) {
+                key[i] = buffer.getChar(record + 2 + 2 * i);
+            }
+            int position = record + 2 + 2 * keyLength;
+            int titleLength = buffer.getShort(position) & 0xFFFF;
+            byte[] title = new byte[titleLength];
+            buffer.get(position + 2, title);
+            position += 2 + titleLength;
+            return new OfflineMovieRecord(new String(key), new String(title, StandardCharsets.UTF_8),
+                    buffer.getShort(position), buffer.getShort(position + 2), buffer.getShort(position + 4));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.movies_selector.offline;
+
+/**
+ * One entry of the offline metadata index. Unknown numeric values are stored as -1.
+ */
+public record OfflineMovieRecord(String key, String title, int year, int ratingTenths, int runtimeMinutes) {
+}
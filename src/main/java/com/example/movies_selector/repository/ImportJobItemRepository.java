@@ -0,0 +1,16 @@
+package com.example.movies_selector.repository;
+
+import com.example.movies_selector.domain.ImportJobItem;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Transactional
+@Repository
+public interface ImportJobItemRepository extends CrudRepository<ImportJobItem, Long> {
+
+    List<ImportJobItem> findByJobIdAndOutcomeIsNullOrderByPositionAsc(Long jobId, Pageable pageable);
+}
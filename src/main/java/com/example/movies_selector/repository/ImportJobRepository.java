@@ -0,0 +1,17 @@
+package com.example.movies_selector.repository;
+
+import com.example.movies_selector.domain.ImportJob;
+import com.example.movies_selector.domain.ImportJobStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Transactional
+@Repository
+public interface ImportJobRepository extends CrudRepository<ImportJob, Long> {
+
+    List<ImportJob> findByStatusInOrderByJobIdAsc(Collection<ImportJobStatus> statuses);
+}
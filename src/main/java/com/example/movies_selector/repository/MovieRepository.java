@@ -1,17 +1,33 @@
 package com.example.movies_selector.repository;
 
 import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MovieKey;
+import com.example.movies_selector.domain.MovieRating;
+import com.example.movies_selector.domain.MovieTitle;
 import com.example.movies_selector.domain.Status;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Transactional
 @Repository
-public interface MovieRepository extends CrudRepository<Movie, Long> {
+public interface MovieRepository extends CrudRepository<Movie, Long>, MovieRepositoryCustom {
 
     @Override
     List<Movie> findAll();
@@ -22,14 +38,110 @@ public interface MovieRepository extends CrudRepository<Movie, Long> {
     @Override
     Movie save(Movie movie);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select m from Movie m order by m.movieId")
+    Stream<Movie> streamAll();
+
+    @Query("select new com.example.movies_selector.domain.MovieDto(m.movieId, m.title, m.year, m.duration, m.status, m.imdbStatus, m.version)" +
+            " from Movie m order by m.movieId")
+    List<MovieDto> findAllDtos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.movies_selector.domain.MovieDto(m.movieId, m.title, m.year, m.duration, m.status, m.imdbStatus, m.version)" +
+            " from Movie m order by m.movieId")
+    Stream<MovieDto> streamAllDtos();
+
+    @Query("select new com.example.movies_selector.domain.MovieDto(m.movieId, m.title, m.year, m.duration, m.status, m.imdbStatus, m.version)" +
+            " from Movie m where m.status = :status")
+    List<MovieDto> findDtosByStatus(@Param("status") Status status);
+
+    @Query("select new com.example.movies_selector.domain.MovieDto(m.movieId, m.title, m.year, m.duration, m.status, m.imdbStatus, m.version)" +
+            " from Movie m where m.ratingTenths >= :ratingTenths")
+    List<MovieDto> findDtosByRatingTenthsAtLeast(@Param("ratingTenths") int ratingTenths);
+
+    @Query("select new com.example.movies_selector.domain.MovieDto(m.movieId, m.title, m.year, m.duration, m.status, m.imdbStatus, m.version)" +
+            " from Movie m where m.movieId in :movieIds order by m.movieId")
+    List<MovieDto> findDtosByMovieIdIn(@Param("movieIds") Collection<Long> movieIds);
+
+    @Query("select new com.example.movies_selector.domain.MovieDto(m.movieId, m.title, m.year, m.duration, m.status, m.imdbStatus, m.version)" +
+            " from Movie m where m.movieId = :movieId")
+    Optional<MovieDto> findDtoById(@Param("movieId") Long movieId);
+
+    @Query("select new com.example.movies_selector.domain.MovieDto(m.movieId, m.title, m.year, m.duration, m.status, m.imdbStatus, m.version)" +
+            " from Movie m where m.normalizedTitle = :normalizedTitle order by m.movieId")
+    List<MovieDto> findDtosByNormalizedTitle(@Param("normalizedTitle") String normalizedTitle, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.movies_selector.domain.MovieRating(m.movieId, m.ratingTenths) from Movie m where m.ratingTenths is not null")
+    Stream<MovieRating> streamRatings();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.movies_selector.domain.MovieTitle(m.movieId, m.title) from Movie m where m.title is not null")
+    Stream<MovieTitle> streamTitles();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.movies_selector.domain.MovieKey(m.normalizedTitle, m.year) from Movie m where m.normalizedTitle is not null")
+    Stream<MovieKey> streamKeys();
+
+    boolean existsByNormalizedTitleAndYear(String normalizedTitle, String year);
+
     Movie findByTitleEqualsIgnoreCase(String title);
 
+    Movie findFirstByNormalizedTitleOrderByMovieIdAsc(String normalizedTitle);
+
+    List<Movie> findByNormalizedTitleStartingWithOrderByNormalizedTitleAsc(String prefix, Pageable pageable);
+
     List<Movie> findByStatus(Status status);
 
+    List<Movie> findByTitleIn(Collection<String> titles);
+
+    List<Movie> findByNormalizedTitleIn(Collection<String> normalizedTitles);
+
+    List<Movie> findByRatingTenthsGreaterThanEqual(int ratingTenths);
+
+    // "0" and "N/A" are the stand-ins for a missing year, rating or duration; they derive to null,
+    // so matching them would visit the same rows on every run
+    @Query("select m from Movie m where m.movieId > :afterId and ((m.normalizedTitle is null and m.title is not null)" +
+            " or (m.ratingTenths is null and m.imdbStatus is not null and m.imdbStatus not in ('N/A', ''))" +
+            " or (m.releaseYear is null and m.year is not null and m.year not in ('0', 'N/A', ''))" +
+            " or (m.durationMinutes is null and m.duration is not null and m.duration not in ('N/A', '')))" +
+            " order by m.movieId")
+    List<Movie> findDerivedColumnsToBackfill(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select m from Movie m where m.movieId > :afterId and (m.enrichmentPending = true" +
+            " or m.lastEnrichedAt is null or m.lastEnrichedAt < :staleBefore" +
+            " or ((m.imdbStatus is null or m.imdbStatus = '0' or m.duration is null) and m.lastEnrichedAt < :incompleteBefore))" +
+            " order by m.movieId")
+    List<Movie> findEnrichmentCandidates(@Param("afterId") Long afterId,
+                                         @Param("staleBefore") Instant staleBefore,
+                                         @Param("incompleteBefore") Instant incompleteBefore,
+                                         Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Movie m set m.status = :status, m.version = m.version + 1 where m.movieId in :movieIds and (m.status is null or m.status <> :status)")
+    int updateStatusByMovieIdIn(@Param("status") Status status, @Param("movieIds") Collection<Long> movieIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Movie m set m.status = :status, m.version = m.version + 1 where m.normalizedTitle in :normalizedTitles and (m.status is null or m.status <> :status)")
+    int updateStatusByNormalizedTitleIn(@Param("status") Status status, @Param("normalizedTitles") Collection<String> normalizedTitles);
+
+    @Modifying
+    @Query("update Movie m set m.version = 0 where m.version is null")
+    int initializeMissingVersions();
+
+    long countByStatus(Status status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m.movieId from Movie m where m.status = :status order by m.movieId")
+    List<Long> lockIdsByStatus(@Param("status") Status status, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Movie m where m.movieId in :movieIds")
+    int deleteByMovieIdIn(@Param("movieIds") Collection<Long> movieIds);
+
     @Override
     void deleteById(Long movieId);
-
-    void deleteAllByStatus(Status status);
 }
 
 
@@ -0,0 +1,19 @@
+package com.example.movies_selector.repository;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieCriteria;
+import com.example.movies_selector.domain.MovieRow;
+import com.example.movies_selector.domain.MovieSort;
+import com.example.movies_selector.domain.PageCursor;
+import com.example.movies_selector.domain.Status;
+
+import java.util.List;
+
+public interface MovieRepositoryCustom {
+
+    List<Movie> findPage(MovieCriteria criteria, MovieSort sort, PageCursor after, int limit);
+
+    List<MovieRow> findPageRows(MovieCriteria criteria, MovieSort sort, PageCursor after, int limit);
+
+    int updateStatus(MovieCriteria criteria, Status status);
+}
@@ -0,0 +1,141 @@
+package com.example.movies_selector.repository;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieCriteria;
+import com.example.movies_selector.domain.MovieRow;
+import com.example.movies_selector.domain.MovieSort;
+import com.example.movies_selector.domain.PageCursor;
+import com.example.movies_selector.domain.Status;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+public class MovieRepositoryImpl implements MovieRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Movie> findPage(MovieCriteria criteria, MovieSort sort, PageCursor after, int limit) {
+        return findPage(Movie.class, (cb, movie) -> movie, criteria, sort, after, limit);
+    }
+
+    @Override
+    public List<MovieRow> findPageRows(MovieCriteria criteria, MovieSort sort, PageCursor after, int limit) {
+        return findPage(MovieRow.class, (cb, movie) -> cb.construct(MovieRow.class,
+                movie.get("movieId"), movie.get("title"), movie.get("year"), movie.get("duration"), movie.get("status"),
+                movie.get("imdbStatus"), movie.get("version"), movie.get("releaseYear"), movie.get("ratingTenths")), criteria, sort, after, limit);
+    }
+
+    private <T> List<T> findPage(Class<T> type, BiFunction<CriteriaBuilder, Root<Movie>, Selection<? extends T>> selection,
+                                 MovieCriteria criteria, MovieSort sort, PageCursor after, int limit) {
+        if (sort == MovieSort.ID) {
+            return findSlice(type, selection, criteria, sort, after, false, limit);
+        }
+        List<T> page = new ArrayList<>();
+        if (after == null || !after.isInNulls()) {
+            page.addAll(findSlice(type, selection, criteria, sort, after, false, limit));
+        }
+        if (page.size() < limit) {
+            PageCursor nullsAfter = after != null && after.isInNulls() ? after : null;
+            page.addAll(findSlice(type, selection, criteria, sort, nullsAfter, true, limit - page.size()));
+        }
+        return page;
+    }
+
+    @Override
+    public int updateStatus(MovieCriteria criteria, Status status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Movie> update = cb.createCriteriaUpdate(Movie.class);
+        Root<Movie> movie = update.from(Movie.class);
+        Path<Status> currentStatus = movie.get("status");
+
+        List<Predicate> predicates = matching(cb, movie, criteria);
+        predicates.add(cb.or(cb.isNull(currentStatus), cb.notEqual(currentStatus, status)));
+        Path<Long> version = movie.get("version");
+        update.set(currentStatus, status)
+                .set(version, cb.sum(version, 1L))
+                .where(predicates.toArray(new Predicate[0]));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    private <T> List<T> findSlice(Class<T> type, BiFunction<CriteriaBuilder, Root<Movie>, Selection<? extends T>> selection,
+                                  MovieCriteria criteria, MovieSort sort, PageCursor after, boolean nullKeys, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<Movie> movie = query.from(Movie.class);
+        Path<Long> id = movie.get("movieId");
+
+        List<Predicate> predicates = matching(cb, movie, criteria);
+
+        if (sort == MovieSort.ID || nullKeys) {
+            if (sort != MovieSort.ID) {
+                predicates.add(cb.isNull(movie.get(sort.getAttribute())));
+            }
+            if (after != null) {
+                predicates.add(cb.gt(id, after.getLastId()));
+            }
+            query.orderBy(cb.asc(id));
+        } else if (sort == MovieSort.RATING || sort == MovieSort.YEAR) {
+            Path<Integer> key = movie.get(sort.getAttribute());
+            predicates.add(cb.isNotNull(key));
+            if (after != null) {
+                predicates.add(afterKey(cb, key, id, Integer.valueOf(after.getLastKey()), after.getLastId()));
+            }
+            query.orderBy(cb.asc(key), cb.asc(id));
+        } else {
+            Path<String> key = movie.get(sort.getAttribute());
+            predicates.add(cb.isNotNull(key));
+            if (after != null) {
+                predicates.add(afterKey(cb, key, id, after.getLastKey(), after.getLastId()));
+            }
+            query.orderBy(cb.asc(key), cb.asc(id));
+        }
+
+        query.select(selection.apply(cb, movie)).where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private List<Predicate> matching(CriteriaBuilder cb, Root<Movie> movie, MovieCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (!criteria.getStatuses().isEmpty()) {
+            predicates.add(movie.get("status").in(criteria.getStatuses()));
+        }
+        if (criteria.getMinRatingTenths() != null) {
+            predicates.add(cb.ge(movie.get("ratingTenths"), criteria.getMinRatingTenths()));
+        }
+        if (criteria.getMaxRatingTenths() != null) {
+            predicates.add(cb.le(movie.get("ratingTenths"), criteria.getMaxRatingTenths()));
+        }
+        if (criteria.getFromYear() != null) {
+            predicates.add(cb.ge(movie.get("releaseYear"), criteria.getFromYear()));
+        }
+        if (criteria.getToYear() != null) {
+            predicates.add(cb.le(movie.get("releaseYear"), criteria.getToYear()));
+        }
+        if (criteria.getMaxDurationMinutes() != null) {
+            predicates.add(cb.le(movie.get("durationMinutes"), criteria.getMaxDurationMinutes()));
+        }
+        return predicates;
+    }
+
+    private <T extends Comparable<? super T>> Predicate afterKey(CriteriaBuilder cb, Path<T> key, Path<Long> id, T lastKey, long lastId) {
+        return cb.or(
+                cb.greaterThan(key, lastKey),
+                cb.and(cb.equal(key, lastKey), cb.gt(id, lastId)));
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.ImportJob;
+import com.example.movies_selector.domain.ImportJobDto;
+import com.example.movies_selector.domain.ImportJobItem;
+import com.example.movies_selector.domain.ImportJobStatus;
+import com.example.movies_selector.domain.TitleImportResultDto;
+import com.example.movies_selector.exceptions.ImportJobNotFoundException;
+import com.example.movies_selector.exceptions.InvalidImportException;
+import com.example.movies_selector.repository.ImportJobItemRepository;
+import com.example.movies_selector.repository.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+public class ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final MovieImportService movieImportService;
+
+    private final ImportJobRepository importJobRepository;
+
+    private final ImportJobItemRepository importJobItemRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService workers;
+
+    private final Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+
+    private final int batchSize;
+
+    private final int maxTitles;
+
+    private final int flushEvery;
+
+    @Autowired
+    public ImportJobService(MovieImportService movieImportService,
+                            ImportJobRepository importJobRepository,
+                            ImportJobItemRepository importJobItemRepository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${movies.import.jobs.workers:2}") int workers,
+                            @Value("${movies.import.jobs.batch-size:100}") int batchSize,
+                            @Value("${movies.import.jobs.max-titles:200000}") int maxTitles,
+                            @Value("${movies.batch-insert.flush-every:500}") int flushEvery) {
+        this.movieImportService = movieImportService;
+        this.importJobRepository = importJobRepository;
+        this.importJobItemRepository = importJobItemRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(workers);
+        this.batchSize = batchSize;
+        this.maxTitles = maxTitles;
+        this.flushEvery = flushEvery;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public ImportJobDto submit(List<String> titles) throws InvalidImportException {
+        List<String> requested = movieImportService.cleanTitles(titles);
+        if (requested.isEmpty() || requested.size() > maxTitles) {
+            throw new InvalidImportException();
+        }
+        // one transaction, so a job never resumes with part of its items; flushed and cleared every
+        // flushEvery items like MovieBatchWriter, so a large job does not stay managed all at once
+        ImportJob job = transactionTemplate.execute(status -> {
+            ImportJob newJob = importJobRepository.save(new ImportJob(requested.size()));
+            for (int i = 0; i < requested.size(); i++) {
+                entityManager.persist(new ImportJobItem(newJob.getJobId(), i, requested.get(i)));
+                if ((i + 1) % flushEvery == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return newJob;
+        });
+        dispatch(job.getJobId());
+        return toDto(job);
+    }
+
+    public ImportJobDto findById(Long jobId) throws ImportJobNotFoundException {
+        return toDto(importJobRepository.findById(jobId).orElseThrow(ImportJobNotFoundException::new));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        importJobRepository.findByStatusInOrderByJobIdAsc(List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING))
+                .forEach(job -> dispatch(job.getJobId()));
+    }
+
+    private void dispatch(Long jobId) {
+        if (!dispatched.add(jobId)) {
+            return;
+        }
+        workers.execute(() -> {
+            try {
+                runJob(jobId);
+            } catch (RuntimeException e) {
+                log.error("Import job {} stopped, it will resume on the next start", jobId, e);
+            } finally {
+                dispatched.remove(jobId);
+            }
+        });
+    }
+
+    private void runJob(Long jobId) {
+        transactionTemplate.executeWithoutResult(status -> importJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(ImportJobStatus.RUNNING);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(Instant.now());
+            }
+        }));
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<ImportJobItem> pending = importJobItemRepository.findByJobIdAndOutcomeIsNullOrderByPositionAsc(jobId, PageRequest.of(0, batchSize));
+            if (pending.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> importJobRepository.findById(jobId).ifPresent(job -> {
+                    job.setStatus(ImportJobStatus.COMPLETED);
+                    job.setFinishedAt(Instant.now());
+                }));
+                return;
+            }
+            List<TitleImportResultDto> results = movieImportService.importAll(pending.stream().map(ImportJobItem::getTitle).toList());
+            transactionTemplate.executeWithoutResult(status -> {
+                ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+                for (int i = 0; i < pending.size(); i++) {
+                    ImportJobItem item = pending.get(i);
+                    TitleImportResultDto result = results.get(i);
+                    item.setOutcome(result.getOutcome());
+                    item.setMovieId(result.getMovieId());
+                    job.recordOutcome(result.getOutcome());
+                }
+                importJobItemRepository.saveAll(pending);
+            });
+        }
+    }
+
+    private ImportJobDto toDto(ImportJob job) {
+        double itemsPerSecond = 0;
+        Long etaSeconds = null;
+        if (job.getStartedAt() != null) {
+            Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+            long elapsedMillis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+            itemsPerSecond = job.getProcessed() * 1000.0 / elapsedMillis;
+            int remaining = job.getTotal() - job.getProcessed();
+            if (remaining == 0) {
+                etaSeconds = 0L;
+            } else if (itemsPerSecond > 0) {
+                etaSeconds = (long) Math.ceil(remaining / itemsPerSecond);
+            }
+        }
+        return new ImportJobDto(
+                job.getJobId(),
+                job.getStatus().toString(),
+                job.getTotal(),
+                job.getProcessed(),
+                job.getCreated(),
+                job.getDuplicates(),
+                job.getNotFound(),
+                job.getFailed(),
+                itemsPerSecond,
+                etaSeconds,
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.repository.MovieRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills columns derived from older ones for rows written before those columns existed.
+ */
+@Service
+public class MovieBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieBackfillService.class);
+
+    private final MovieRepository movieRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int pageSize;
+
+    @Autowired
+    public MovieBackfillService(MovieRepository movieRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${movies.backfill.page-size:500}") int pageSize) {
+        this.movieRepository = movieRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int versioned = movieRepository.initializeMissingVersions();
+        if (versioned > 0) {
+            log.info("Initialized versions for {} movies", versioned);
+        }
+        int visited = backfillDerivedColumns();
+        if (visited > 0) {
+            log.info("Backfilled derived columns for {} movies", visited);
+        }
+    }
+
+    int backfillDerivedColumns() {
+        long afterId = 0;
+        int visited = 0;
+        while (true) {
+            long from = afterId;
+            // filled before the flush, so a page that fails to commit is not scanned again
+            List<Long> pageIds = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Movie movie : movieRepository.findDerivedColumnsToBackfill(from, PageRequest.of(0, pageSize))) {
+                        pageIds.add(movie.getMovieId());
+                        movie.refreshDerivedColumns();
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // titles that only differ by case or accents now collide; convert the page row by row
+                pageIds.forEach(this::backfillOne);
+            }
+            if (pageIds.isEmpty()) {
+                return visited;
+            }
+            visited += pageIds.size();
+            afterId = pageIds.get(pageIds.size() - 1);
+        }
+    }
+
+    private void backfillOne(Long movieId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> movieRepository.findById(movieId).ifPresent(Movie::refreshDerivedColumns));
+        } catch (DataIntegrityViolationException e) {
+            // the numeric columns do not depend on the collision; fill them and mark the title so the row is not scanned again
+            try {
+                transactionTemplate.executeWithoutResult(status -> movieRepository.findById(movieId).ifPresent(movie -> {
+                    movie.refreshDerivedColumns();
+                    movie.useFallbackNormalizedTitle();
+                }));
+                log.warn("Movie {} has the same normalized title and year as another movie; stored it under a fallback normalized title", movieId);
+            } catch (DataIntegrityViolationException fallbackCollision) {
+                log.warn("Movie {} could not be given a unique normalized title and was left unchanged", movieId, fallbackCollision);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.Movie;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Inserts new movies in one transaction as JDBC batches. Ids come from Hibernate's default
+ * movie_seq sequence, which hands them out in blocks of 50, and the persistence context is flushed
+ * and cleared every {@code flushEvery} rows so memory stays flat however many rows are written.
+ */
+@Service
+public class MovieBatchWriter {
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int flushEvery;
+
+    @Autowired
+    public MovieBatchWriter(EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${movies.batch-insert.flush-every:500}") int flushEvery) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushEvery = flushEvery;
+    }
+
+    public void insertAll(List<Movie> movies) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int pending = 0;
+            for (Movie movie : movies) {
+                entityManager.persist(movie);
+                if (++pending == flushEvery) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    pending = 0;
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.DeletionTaskDto;
+import com.example.movies_selector.domain.DeletionTaskStatus;
+import com.example.movies_selector.domain.MovieChangedEvent;
+import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.exceptions.DeletionTaskNotFoundException;
+import com.example.movies_selector.repository.MovieRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Deletes movies by status in chunks, each locked, deleted and committed in its own short transaction,
+ * without loading the entities. Large deletions can run as background tasks whose progress is kept
+ * in memory; a task lost on restart can simply be submitted again.
+ */
+@Service
+public class MovieDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieDeletionService.class);
+
+    private static final int MAX_FINISHED_TASKS = 100;
+
+    private final MovieRepository movieRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ExecutorService workers = Executors.newSingleThreadExecutor();
+
+    private final Map<Long, DeletionTask> tasks = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextTaskId = new AtomicLong();
+
+    private final int chunkSize;
+
+    @Autowired
+    public MovieDeletionService(MovieRepository movieRepository,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${movies.delete.chunk-size:1000}") int chunkSize) {
+        this.movieRepository = movieRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public long deleteAllByStatus(Status status) {
+        long deleted = deleteAllByStatus(status, progress -> {
+        });
+        log.info("Deleted {} movies with status {}", deleted, status);
+        return deleted;
+    }
+
+    public DeletionTaskDto submit(Status status) {
+        evictFinishedTasks();
+        DeletionTask task = new DeletionTask(nextTaskId.incrementAndGet(), status, movieRepository.countByStatus(status));
+        tasks.put(task.taskId, task);
+        workers.execute(() -> run(task));
+        return toDto(task);
+    }
+
+    public DeletionTaskDto findTask(Long taskId) throws DeletionTaskNotFoundException {
+        DeletionTask task = tasks.get(taskId);
+        if (task == null) {
+            throw new DeletionTaskNotFoundException();
+        }
+        return toDto(task);
+    }
+
+    private void run(DeletionTask task) {
+        task.startedAt = Instant.now();
+        task.status = DeletionTaskStatus.RUNNING;
+        try {
+            deleteAllByStatus(task.movieStatus, deleted -> task.deleted = deleted);
+            task.status = DeletionTaskStatus.COMPLETED;
+            log.info("Deletion task {} removed {} movies with status {}", task.taskId, task.deleted, task.movieStatus);
+        } catch (RuntimeException e) {
+            task.status = DeletionTaskStatus.FAILED;
+            log.error("Deletion task {} stopped after {} movies", task.taskId, task.deleted, e);
+        } finally {
+            task.finishedAt = Instant.now();
+        }
+    }
+
+    private long deleteAllByStatus(Status status, LongConsumer progress) {
+        long deleted = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Integer chunk = transactionTemplate.execute(tx -> deleteChunk(status));
+            if (chunk == null || chunk == 0) {
+                break;
+            }
+            deleted += chunk;
+            progress.accept(deleted);
+        }
+        return deleted;
+    }
+
+    private int deleteChunk(Status status) {
+        // locking the ids first makes the published events match exactly what the delete removes
+        List<Long> movieIds = movieRepository.lockIdsByStatus(status, PageRequest.of(0, chunkSize));
+        if (movieIds.isEmpty()) {
+            return 0;
+        }
+        int deleted = movieRepository.deleteByMovieIdIn(movieIds);
+        movieIds.forEach(movieId -> eventPublisher.publishEvent(MovieChangedEvent.deleted(movieId)));
+        return deleted;
+    }
+
+    private void evictFinishedTasks() {
+        List<Long> finished = tasks.values().stream()
+                .filter(task -> task.finishedAt != null)
+                .map(task -> task.taskId)
+                .sorted()
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_TASKS; i++) {
+            tasks.remove(finished.get(i));
+        }
+    }
+
+    private DeletionTaskDto toDto(DeletionTask task) {
+        double moviesPerSecond = 0;
+        Long etaSeconds = null;
+        if (task.startedAt != null) {
+            Instant end = task.finishedAt != null ? task.finishedAt : Instant.now();
+            long elapsedMillis = Math.max(1, Duration.between(task.startedAt, end).toMillis());
+            moviesPerSecond = task.deleted * 1000.0 / elapsedMillis;
+            long remaining = Math.max(0, task.total - task.deleted);
+            if (remaining == 0 || task.finishedAt != null) {
+                etaSeconds = 0L;
+            } else if (moviesPerSecond > 0) {
+                etaSeconds = (long) Math.ceil(remaining / moviesPerSecond);
+            }
+        }
+        return new DeletionTaskDto(
+                task.taskId,
+                task.status.toString(),
+                task.movieStatus.toString(),
+                task.total,
+                task.deleted,
+                moviesPerSecond,
+                etaSeconds,
+                task.createdAt,
+                task.startedAt,
+                task.finishedAt
+        );
+    }
+
+    private static final class DeletionTask {
+        private final long taskId;
+        private final Status movieStatus;
+        private final long total;
+        private final Instant createdAt = Instant.now();
+        private volatile DeletionTaskStatus status = DeletionTaskStatus.QUEUED;
+        private volatile long deleted;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+
+        private DeletionTask(long taskId, Status movieStatus, long total) {
+            this.taskId = taskId;
+            this.movieStatus = movieStatus;
+            this.total = total;
+        }
+    }
+}
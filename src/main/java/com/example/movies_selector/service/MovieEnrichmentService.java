@@ -0,0 +1,177 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.EnrichmentReportDto;
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import com.example.movies_selector.exceptions.OMDBUnavailableException;
+import com.example.movies_selector.mapper.MoviesMapper;
+import com.example.movies_selector.repository.MovieRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class MovieEnrichmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieEnrichmentService.class);
+
+    private final MovieRepository movieRepository;
+
+    private final OMDBService omdbService;
+
+    private final MoviesMapper mapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter updatedCounter;
+
+    private final Counter unchangedCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter skippedCounter;
+
+    @Value("${movies.enrichment.enabled:false}")
+    private boolean enabled;
+
+    @Value("${movies.enrichment.dry-run:false}")
+    private boolean dryRun;
+
+    @Value("${movies.enrichment.freshness:30d}")
+    private Duration freshness;
+
+    @Value("${movies.enrichment.incomplete-retry:1d}")
+    private Duration incompleteRetry;
+
+    @Value("${movies.enrichment.page-size:100}")
+    private int pageSize;
+
+    @Value("${movies.enrichment.max-lookups-per-run:200}")
+    private int maxLookupsPerRun;
+
+    @Autowired
+    public MovieEnrichmentService(MovieRepository movieRepository,
+                                  OMDBService omdbService,
+                                  MoviesMapper mapper,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.omdbService = omdbService;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.updatedCounter = meterRegistry.counter("movies.enrichment.movies", "result", "updated");
+        this.unchangedCounter = meterRegistry.counter("movies.enrichment.movies", "result", "unchanged");
+        this.failedCounter = meterRegistry.counter("movies.enrichment.movies", "result", "failed");
+        this.skippedCounter = meterRegistry.counter("movies.enrichment.movies", "result", "skipped");
+    }
+
+    @Scheduled(fixedDelayString = "${movies.enrichment.interval:PT6H}", initialDelayString = "${movies.enrichment.initial-delay:PT5M}")
+    public void scheduledEnrichment() {
+        if (enabled) {
+            EnrichmentReportDto report = enrichStaleMovies(dryRun);
+            log.info("Enrichment run finished: dryRun={}, lookups={}, updated={}, unchanged={}, failed={}, skipped={}, stoppedByOMDB={}",
+                    report.isDryRun(), report.getLookups(), report.getUpdated(), report.getUnchanged(), report.getFailed(),
+                    report.getSkipped(), report.isStoppedByOMDB());
+        }
+    }
+
+    public EnrichmentReportDto enrichStaleMovies(boolean dryRun) {
+        Instant now = Instant.now();
+        Instant staleBefore = now.minus(freshness);
+        Instant incompleteBefore = now.minus(incompleteRetry);
+        long afterId = 0;
+        int lookups = 0;
+        int[] outcome = new int[4];
+        boolean stoppedByOMDB = false;
+
+        while (lookups < maxLookupsPerRun && !stoppedByOMDB) {
+            int limit = Math.min(pageSize, maxLookupsPerRun - lookups);
+            List<Movie> page = movieRepository.findEnrichmentCandidates(afterId, staleBefore, incompleteBefore, PageRequest.of(0, limit));
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getMovieId();
+
+            Map<Long, MovieInfoOMDBDto> fetched = new LinkedHashMap<>();
+            for (Movie movie : page) {
+                try {
+                    fetched.put(movie.getMovieId(), omdbService.refreshMovieFromOMDB(movie.getTitle(), mapper.knownYear(movie)));
+                    lookups++;
+                } catch (OMDBUnavailableException e) {
+                    log.warn("Stopping enrichment run, OMDB unavailable: {}", e.getMessage());
+                    stoppedByOMDB = true;
+                    break;
+                }
+            }
+            if (!fetched.isEmpty()) {
+                writeBack(fetched, dryRun, outcome);
+            }
+        }
+        updatedCounter.increment(outcome[0]);
+        unchangedCounter.increment(outcome[1]);
+        failedCounter.increment(outcome[2]);
+        skippedCounter.increment(outcome[3]);
+        return new EnrichmentReportDto(dryRun, lookups, outcome[0], outcome[1], outcome[2], outcome[3], stoppedByOMDB);
+    }
+
+    private void writeBack(Map<Long, MovieInfoOMDBDto> fetched, boolean dryRun, int[] outcome) {
+        int[] pageOutcome = new int[3];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Movie movie : movieRepository.findAllById(fetched.keySet())) {
+                    MovieInfoOMDBDto movieFromOMDB = fetched.get(movie.getMovieId());
+                    if (!mapper.isSameRelease(movie, movieFromOMDB) || takesYearOfAnotherMovie(movie, movieFromOMDB)) {
+                        // visited, so the row waits for the next freshness window instead of failing the page
+                        log.info("Skipping enrichment of movie {} ({}, {}): OMDB answered with year {}",
+                                movie.getMovieId(), movie.getTitle(), movie.getYear(), movieFromOMDB.getYear());
+                        movie.setEnrichmentPending(null);
+                        movie.setLastEnrichedAt(Instant.now());
+                        pageOutcome[2]++;
+                    } else if (mapper.applyOMDBDetails(movie, movieFromOMDB)) {
+                        pageOutcome[0]++;
+                        if (dryRun) {
+                            log.info("Dry run: would update movie {} ({}) to year={}, rating={}, duration={}",
+                                    movie.getMovieId(), movie.getTitle(), movie.getYear(), movie.getImdbStatus(), movie.getDuration());
+                        }
+                    } else {
+                        pageOutcome[1]++;
+                    }
+                }
+                if (dryRun) {
+                    status.setRollbackOnly();
+                }
+            });
+            outcome[0] += pageOutcome[0];
+            outcome[1] += pageOutcome[1];
+            outcome[3] += pageOutcome[2];
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not write back enrichment of {} movies", fetched.size(), e);
+            outcome[2] += fetched.size();
+        }
+    }
+
+    // a movie whose year was unknown would collide with a stored movie of the same title and year
+    private boolean takesYearOfAnotherMovie(Movie movie, MovieInfoOMDBDto movieFromOMDB) {
+        if (movieFromOMDB.getResponse().equals("False")) {
+            return false;
+        }
+        String year = mapper.yearFrom(movieFromOMDB);
+        return !year.equals(movie.getYear()) && movieRepository.existsByNormalizedTitleAndYear(movie.getNormalizedTitle(), year);
+    }
+}
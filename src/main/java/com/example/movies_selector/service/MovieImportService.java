@@ -0,0 +1,227 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.BulkImportResultDto;
+import com.example.movies_selector.domain.ImportOutcome;
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import com.example.movies_selector.domain.TitleImportResultDto;
+import com.example.movies_selector.domain.TitleNormalizer;
+import com.example.movies_selector.exceptions.InvalidImportException;
+import com.example.movies_selector.exceptions.OMDBUnavailableException;
+import com.example.movies_selector.index.MovieKeyFilter;
+import com.example.movies_selector.mapper.MoviesMapper;
+import com.example.movies_selector.repository.MovieRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Service
+public class MovieImportService {
+
+    private final OMDBService omdbService;
+
+    private final MovieRepository movieRepository;
+
+    private final MoviesMapper mapper;
+
+    private final MovieKeyFilter movieKeyFilter;
+
+    private final MovieBatchWriter movieBatchWriter;
+
+    private final ExecutorService lookupExecutor;
+
+    private final int batchSize;
+
+    private final int maxTitles;
+
+    private final Map<ImportOutcome, Counter> outcomeCounters = new EnumMap<>(ImportOutcome.class);
+
+    @Autowired
+    public MovieImportService(OMDBService omdbService,
+                              MovieRepository movieRepository,
+                              MoviesMapper mapper,
+                              MovieKeyFilter movieKeyFilter,
+                              MovieBatchWriter movieBatchWriter,
+                              MeterRegistry meterRegistry,
+                              @Value("${movies.import.concurrency:8}") int concurrency,
+                              @Value("${movies.import.batch-size:50}") int batchSize,
+                              @Value("${movies.import.max-titles:10000}") int maxTitles) {
+        this.omdbService = omdbService;
+        this.movieRepository = movieRepository;
+        this.mapper = mapper;
+        this.movieKeyFilter = movieKeyFilter;
+        this.movieBatchWriter = movieBatchWriter;
+        this.lookupExecutor = Executors.newFixedThreadPool(concurrency);
+        this.batchSize = batchSize;
+        this.maxTitles = maxTitles;
+        for (ImportOutcome outcome : ImportOutcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("movies.import.titles")
+                    .tag("outcome", outcome.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    public List<String> splitLines(String titles) {
+        return titles == null ? List.of() : titles.lines().toList();
+    }
+
+    public List<String> cleanTitles(List<String> titles) {
+        return titles == null ? List.of() : titles.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(title -> !title.isEmpty())
+                .toList();
+    }
+
+    public BulkImportResultDto importTitles(List<String> titles) throws InvalidImportException {
+        List<String> requested = cleanTitles(titles);
+        if (requested.isEmpty() || requested.size() > maxTitles) {
+            throw new InvalidImportException();
+        }
+
+        long started = System.nanoTime();
+        List<TitleImportResultDto> resultList = importAll(requested);
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        Map<ImportOutcome, Long> counts = resultList.stream()
+                .collect(Collectors.groupingBy(TitleImportResultDto::getOutcome, () -> new EnumMap<>(ImportOutcome.class), Collectors.counting()));
+        return new BulkImportResultDto(
+                requested.size(),
+                counts.getOrDefault(ImportOutcome.CREATED, 0L).intValue(),
+                counts.getOrDefault(ImportOutcome.DUPLICATE, 0L).intValue(),
+                counts.getOrDefault(ImportOutcome.NOT_FOUND, 0L).intValue(),
+                counts.getOrDefault(ImportOutcome.FAILED, 0L).intValue(),
+                elapsedMillis,
+                requested.size() * 1000.0 / elapsedMillis,
+                resultList
+        );
+    }
+
+    public List<TitleImportResultDto> importAll(List<String> titles) {
+        List<CompletableFuture<MovieInfoOMDBDto>> lookups = titles.stream()
+                .map(title -> CompletableFuture.supplyAsync(() -> omdbService.getMovieFromOMDB(title), lookupExecutor))
+                .toList();
+
+        TitleImportResultDto[] results = new TitleImportResultDto[titles.size()];
+        Set<String> keysInImport = new HashSet<>();
+        List<PendingInsert> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < titles.size(); i++) {
+            String title = titles.get(i);
+            MovieInfoOMDBDto movieFromOMDB;
+            try {
+                movieFromOMDB = lookups.get(i).join();
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof OMDBUnavailableException)) {
+                    results[i] = failed(title, e.getCause());
+                    continue;
+                }
+                movieFromOMDB = null;
+            }
+            Movie movie = toMovie(title, movieFromOMDB);
+            if (!keysInImport.add(keyOf(movie))) {
+                results[i] = new TitleImportResultDto(title, ImportOutcome.DUPLICATE, null, "Repeated in this import");
+                continue;
+            }
+            batch.add(new PendingInsert(i, title, movieFromOMDB, movie));
+            if (batch.size() == batchSize) {
+                insertBatch(batch, results);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, results);
+        }
+
+        List<TitleImportResultDto> resultList = Arrays.asList(results);
+        resultList.forEach(result -> outcomeCounters.get(result.getOutcome()).increment());
+        return resultList;
+    }
+
+    private void insertBatch(List<PendingInsert> batch, TitleImportResultDto[] results) {
+        List<String> possiblyStored = batch.stream()
+                .map(PendingInsert::movie)
+                .filter(movie -> movieKeyFilter.mightContain(movie.getNormalizedTitle(), movie.getYear()))
+                .map(Movie::getNormalizedTitle)
+                .toList();
+        Set<String> existingKeys = possiblyStored.isEmpty() ? Set.of() : movieRepository.findByNormalizedTitleIn(possiblyStored).stream()
+                .map(this::keyOf)
+                .collect(Collectors.toSet());
+        List<PendingInsert> toInsert = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            if (existingKeys.contains(keyOf(pending.movie()))) {
+                results[pending.index()] = new TitleImportResultDto(pending.title(), ImportOutcome.DUPLICATE, null, "Movie already exists");
+            } else {
+                toInsert.add(pending);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+        try {
+            movieBatchWriter.insertAll(toInsert.stream().map(PendingInsert::movie).toList());
+            toInsert.forEach(pending -> results[pending.index()] = saved(pending, pending.movie()));
+        } catch (RuntimeException e) {
+            toInsert.forEach(pending -> results[pending.index()] = insertOne(pending));
+        }
+    }
+
+    private TitleImportResultDto insertOne(PendingInsert pending) {
+        // the batch transaction was rolled back, so start again from a fresh entity
+        Movie movie = toMovie(pending.title(), pending.movieFromOMDB());
+        try {
+            return saved(pending, movieRepository.save(movie));
+        } catch (DataIntegrityViolationException e) {
+            return new TitleImportResultDto(pending.title(), ImportOutcome.DUPLICATE, null, "Movie already exists");
+        } catch (RuntimeException e) {
+            return failed(pending.title(), e);
+        }
+    }
+
+    private Movie toMovie(String title, MovieInfoOMDBDto movieFromOMDB) {
+        return movieFromOMDB == null ? mapper.mapToUnenrichedMovie(title) : mapper.mapToMovie(title, movieFromOMDB);
+    }
+
+    private TitleImportResultDto saved(PendingInsert pending, Movie movie) {
+        if (pending.movieFromOMDB() == null) {
+            return new TitleImportResultDto(pending.title(), ImportOutcome.CREATED, movie.getMovieId(), "OMDB unavailable, details will be added later");
+        }
+        if ("False".equals(pending.movieFromOMDB().getResponse())) {
+            return new TitleImportResultDto(pending.title(), ImportOutcome.NOT_FOUND, movie.getMovieId(), "Not found in OMDB, added without details");
+        }
+        return new TitleImportResultDto(pending.title(), ImportOutcome.CREATED, movie.getMovieId(), null);
+    }
+
+    private TitleImportResultDto failed(String title, Throwable cause) {
+        return new TitleImportResultDto(title, ImportOutcome.FAILED, null, cause == null ? null : cause.getMessage());
+    }
+
+    private String keyOf(Movie movie) {
+        return TitleNormalizer.normalize(movie.getTitle()) + "|" + movie.getYear();
+    }
+
+    private record PendingInsert(int index, String title, MovieInfoOMDBDto movieFromOMDB, Movie movie) {
+    }
+}
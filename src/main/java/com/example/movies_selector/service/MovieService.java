@@ -1,17 +1,65 @@
 package com.example.movies_selector.service;
 
+import com.example.movies_selector.cache.MovieCache;
+import com.example.movies_selector.cache.MovieListCache;
+import com.example.movies_selector.domain.BulkUpdateResultDto;
+import com.example.movies_selector.domain.CachedMovieList;
+import com.example.movies_selector.domain.DeletionTaskDto;
 import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieCriteria;
+import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MovieETag;
 import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import com.example.movies_selector.domain.MoviePage;
+import com.example.movies_selector.domain.MoviePageDto;
+import com.example.movies_selector.domain.MovieRow;
+import com.example.movies_selector.domain.MovieSort;
+import com.example.movies_selector.domain.MoviesBulkUpdatedEvent;
+import com.example.movies_selector.domain.PageCursor;
 import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.domain.TitleSearchHit;
+import com.example.movies_selector.domain.TitleNormalizer;
+import com.example.movies_selector.exceptions.DeletionTaskNotFoundException;
+import com.example.movies_selector.exceptions.InvalidBulkUpdateException;
+import com.example.movies_selector.exceptions.InvalidPageRequestException;
+import com.example.movies_selector.exceptions.InvalidQueryException;
 import com.example.movies_selector.exceptions.InvalidRatingException;
 import com.example.movies_selector.exceptions.InvalidStatusException;
+import com.example.movies_selector.exceptions.MovieAlreadyExistsException;
 import com.example.movies_selector.exceptions.MovieNotFoundException;
+import com.example.movies_selector.exceptions.OMDBUnavailableException;
+import com.example.movies_selector.exceptions.PreconditionFailedException;
+import com.example.movies_selector.index.CatalogueSnapshot;
+import com.example.movies_selector.index.CatalogueSnapshotHolder;
+import com.example.movies_selector.index.MovieKeyFilter;
+import com.example.movies_selector.index.RatingIndex;
+import com.example.movies_selector.index.TitleSearchIndex;
+import com.example.movies_selector.mapper.MoviesMapper;
 import com.example.movies_selector.repository.MovieRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class MovieService {
@@ -20,28 +68,251 @@ public class MovieService {
 
     OMDBService omdbService;
 
+    MoviesMapper mapper;
+
+    private static final int ID_LOOKUP_CHUNK = 1000;
+
+    private final SingleFlight<String, Movie> titleSaves = new SingleFlight<>();
+
+    private final int maxPageSize;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectProvider<RatingIndex> ratingIndex;
+
+    private final ObjectProvider<CatalogueSnapshotHolder> catalogueSnapshot;
+
+    private final ObjectProvider<TitleSearchIndex> titleSearchIndex;
+
+    private final MovieKeyFilter movieKeyFilter;
+
+    private final MovieDeletionService movieDeletionService;
+
+    private final MovieCache movieCache;
+
+    private final MovieListCache movieListCache;
+
+    private final int maxSearchResults;
+
+    private final int maxBulkKeys;
+
     @Autowired
-    public MovieService(MovieRepository movieRepository, OMDBService omdbService) {
+    public MovieService(MovieRepository movieRepository, OMDBService omdbService, MoviesMapper mapper, MeterRegistry meterRegistry,
+                        EntityManager entityManager, PlatformTransactionManager transactionManager,
+                        ObjectProvider<RatingIndex> ratingIndex, ObjectProvider<CatalogueSnapshotHolder> catalogueSnapshot,
+                        ObjectProvider<TitleSearchIndex> titleSearchIndex, MovieKeyFilter movieKeyFilter,
+                        MovieDeletionService movieDeletionService, MovieCache movieCache, MovieListCache movieListCache,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${movies.page.max-limit:500}") int maxPageSize,
+                        @Value("${movies.search.max-results:50}") int maxSearchResults,
+                        @Value("${movies.bulk-update.max-keys:10000}") int maxBulkKeys) {
         this.movieRepository = movieRepository;
         this.omdbService = omdbService;
+        this.mapper = mapper;
+        this.ratingIndex = ratingIndex;
+        this.catalogueSnapshot = catalogueSnapshot;
+        this.titleSearchIndex = titleSearchIndex;
+        this.movieKeyFilter = movieKeyFilter;
+        this.movieDeletionService = movieDeletionService;
+        this.movieCache = movieCache;
+        this.movieListCache = movieListCache;
+        this.maxSearchResults = maxSearchResults;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.maxBulkKeys = maxBulkKeys;
+        this.maxPageSize = maxPageSize;
+        FunctionCounter.builder("movies.save-by-title.executed", titleSaves, SingleFlight::executedCount).register(meterRegistry);
+        FunctionCounter.builder("movies.save-by-title.collapsed", titleSaves, SingleFlight::collapsedCount).register(meterRegistry);
     }
 
     public List<Movie> findAll() {
-        return movieRepository.findAll();
+        CatalogueSnapshot snapshot = servingSnapshot();
+        return snapshot != null ? snapshot.findAll() : movieRepository.findAll();
+    }
+
+    /**
+     * The snapshot reads are served from, or null when reads go to the database.
+     */
+    private CatalogueSnapshot servingSnapshot() {
+        CatalogueSnapshotHolder holder = catalogueSnapshot.getIfAvailable();
+        return holder == null ? null : holder.current();
+    }
+
+    /**
+     * The snapshot single-movie reads are served from: null unless it has applied every committed
+     * change, so a client reading right after its own write sees that write and its new ETag.
+     */
+    private CatalogueSnapshot caughtUpSnapshot() {
+        CatalogueSnapshotHolder holder = catalogueSnapshot.getIfAvailable();
+        return holder == null || !holder.isCaughtUp() ? null : holder.current();
+    }
+
+    public boolean isServingStaleSnapshot() {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        return snapshot != null && snapshot.isStale();
+    }
+
+    public void streamAll(Consumer<Movie> consumer) {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        if (snapshot != null) {
+            snapshot.forEach(consumer);
+            return;
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Movie> movies = movieRepository.streamAll()) {
+                movies.forEach(movie -> {
+                    consumer.accept(movie);
+                    entityManager.detach(movie);
+                });
+            }
+        });
+    }
+
+    /**
+     * Like {@link #streamAll(Consumer)}, but reads the DTO columns straight from the result set, so no
+     * entity is hydrated, tracked or detached.
+     */
+    public void streamAllDtos(Consumer<MovieDto> consumer) {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        if (snapshot != null) {
+            snapshot.forEach(movie -> consumer.accept(mapper.mapToMovieDto(movie)));
+            return;
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<MovieDto> movies = movieRepository.streamAllDtos()) {
+                movies.forEach(consumer);
+            }
+        });
     }
 
     public Movie findById(Long movieId) throws MovieNotFoundException {
-        return movieRepository.findById(movieId).orElseThrow(MovieNotFoundException::new);
+        CatalogueSnapshot snapshot = caughtUpSnapshot();
+        if (snapshot != null) {
+            Movie movie = snapshot.findById(movieId);
+            if (movie == null) {
+                throw new MovieNotFoundException();
+            }
+            return movie;
+        }
+        return loadById(movieId);
     }
 
     public Movie findByTitle(String title) throws MovieNotFoundException {
-        Movie moviesByTitle = movieRepository.findByTitleEqualsIgnoreCase(title);
+        CatalogueSnapshot snapshot = caughtUpSnapshot();
+        if (snapshot != null) {
+            Movie movie = snapshot.findFirstByNormalizedTitle(TitleNormalizer.normalize(title));
+            if (movie == null) {
+                throw new MovieNotFoundException();
+            }
+            return movie;
+        }
+        return loadByTitle(title);
+    }
+
+    /**
+     * The DTO of one movie, from a caught-up snapshot or the entity cache, otherwise projected in the
+     * query without hydrating an entity.
+     */
+    public MovieDto findDtoById(Long movieId) throws MovieNotFoundException {
+        Movie movie = findLoadedById(movieId);
+        if (movie != null) {
+            return mapper.mapToMovieDto(movie);
+        }
+        return movieRepository.findDtoById(movieId).orElseThrow(MovieNotFoundException::new);
+    }
+
+    public MovieDto findDtoByTitle(String title) throws MovieNotFoundException {
+        String normalizedTitle = TitleNormalizer.normalize(title);
+        Movie movie = findLoadedByTitle(normalizedTitle);
+        if (movie != null) {
+            return mapper.mapToMovieDto(movie);
+        }
+        List<MovieDto> movies = movieRepository.findDtosByNormalizedTitle(normalizedTitle, PageRequest.ofSize(1));
+        if (movies.isEmpty()) {
+            throw new MovieNotFoundException();
+        }
+        return movies.get(0);
+    }
+
+    private Movie findLoadedById(Long movieId) throws MovieNotFoundException {
+        CatalogueSnapshot snapshot = caughtUpSnapshot();
+        if (snapshot == null) {
+            return movieCache.getById(movieId);
+        }
+        Movie movie = snapshot.findById(movieId);
+        if (movie == null) {
+            throw new MovieNotFoundException();
+        }
+        return movie;
+    }
+
+    private Movie findLoadedByTitle(String normalizedTitle) throws MovieNotFoundException {
+        CatalogueSnapshot snapshot = caughtUpSnapshot();
+        if (snapshot == null) {
+            return movieCache.getByTitle(normalizedTitle);
+        }
+        Movie movie = snapshot.findFirstByNormalizedTitle(normalizedTitle);
+        if (movie == null) {
+            throw new MovieNotFoundException();
+        }
+        return movie;
+    }
+
+    // entity cache, then database; writes go here directly so they never start from a lagging snapshot
+    private Movie loadById(Long movieId) throws MovieNotFoundException {
+        Movie cached = movieCache.getById(movieId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = movieCache.generation();
+        Movie movie = movieRepository.findById(movieId).orElseThrow(MovieNotFoundException::new);
+        movieCache.put(movie, generation);
+        return movie;
+    }
+
+    private Movie loadByTitle(String title) throws MovieNotFoundException {
+        String normalizedTitle = TitleNormalizer.normalize(title);
+        Movie cached = movieCache.getByTitle(normalizedTitle);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = movieCache.generation();
+        Movie moviesByTitle = movieRepository.findFirstByNormalizedTitleOrderByMovieIdAsc(normalizedTitle);
         if (moviesByTitle == null) {
             throw new MovieNotFoundException();
         }
+        movieCache.putTitle(normalizedTitle, moviesByTitle, generation);
         return moviesByTitle;
     }
 
+    public List<TitleSearchHit> searchTitles(String query, int limit) {
+        int cappedLimit = Math.min(limit, maxSearchResults);
+        TitleSearchIndex index = titleSearchIndex.getIfAvailable();
+        return index != null && index.isReady() ? index.search(query, cappedLimit) : searchTitlePrefixes(query, cappedLimit);
+    }
+
+    // without the index only prefix matches are found, scored like the index scores them
+    private List<TitleSearchHit> searchTitlePrefixes(String query, int limit) {
+        String key = TitleNormalizer.normalize(query);
+        if (key == null || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return movieRepository.findByNormalizedTitleStartingWithOrderByNormalizedTitleAsc(key, PageRequest.of(0, limit)).stream()
+                .map(movie -> new TitleSearchHit(movie.getMovieId(), movie.getTitle(),
+                        1.0 + (double) key.length() / movie.getNormalizedTitle().length()))
+                .sorted(Comparator.comparingDouble(TitleSearchHit::score).reversed().thenComparingLong(TitleSearchHit::movieId))
+                .toList();
+    }
+
     public Status checkIfStatusCorrect(String status) throws InvalidStatusException {
 
         return switch (status) {
@@ -52,7 +323,7 @@ public class MovieService {
 
     public List<Movie> findByStatus(String status) throws MovieNotFoundException, InvalidStatusException {
 
-        List<Movie> moviesByStatus = movieRepository.findByStatus(checkIfStatusCorrect(status));
+        List<Movie> moviesByStatus = findByStatus(checkIfStatusCorrect(status));
         if (moviesByStatus.isEmpty()) {
             throw new MovieNotFoundException();
         }
@@ -60,23 +331,207 @@ public class MovieService {
     }
 
     public List<Movie> findByRating(String rating) throws MovieNotFoundException, InvalidRatingException {
+        List<Movie> moviesBetterThan = findByMinimumTenths(toMinimumTenths(rating));
+        if (moviesBetterThan.isEmpty()) {
+            throw new MovieNotFoundException();
+        }
+        return moviesBetterThan;
+    }
+
+    private List<Movie> findByStatus(Status status) {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        return snapshot != null ? snapshot.findMatching(MovieCriteria.withStatus(status)) : movieRepository.findByStatus(status);
+    }
+
+    private List<Movie> findByMinimumTenths(int minimumTenths) {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        if (snapshot != null) {
+            return snapshot.findMatching(MovieCriteria.withMinRating(minimumTenths));
+        }
+        RatingIndex index = ratingIndex.getIfAvailable();
+        return index != null && index.isReady()
+                ? findAllById(index.idsAtLeast(minimumTenths))
+                : movieRepository.findByRatingTenthsGreaterThanEqual(minimumTenths);
+    }
+
+    public CachedMovieList listAll() {
+        return movieListCache.get("all", listKey(null), this::findAllDtos);
+    }
+
+    public CachedMovieList listByStatus(String status) throws MovieNotFoundException, InvalidStatusException {
+        Status expectedStatus = checkIfStatusCorrect(status);
+        return nonEmpty(movieListCache.get("status", listKey(expectedStatus), () -> findDtosByStatus(expectedStatus)));
+    }
+
+    public CachedMovieList listByRating(String rating) throws MovieNotFoundException, InvalidRatingException {
+        int minimumTenths = toMinimumTenths(rating);
+        return nonEmpty(movieListCache.get("rating", listKey(minimumTenths), () -> findDtosByMinimumTenths(minimumTenths)));
+    }
+
+    // without a snapshot the lists are projected in the query instead of hydrating entities only to map them
+    private List<MovieDto> findAllDtos() {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        return snapshot != null ? mapper.mapToMovieDtoList(snapshot.findAll()) : movieRepository.findAllDtos();
+    }
+
+    private List<MovieDto> findDtosByStatus(Status status) {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        return snapshot != null
+                ? mapper.mapToMovieDtoList(snapshot.findMatching(MovieCriteria.withStatus(status)))
+                : movieRepository.findDtosByStatus(status);
+    }
+
+    private List<MovieDto> findDtosByMinimumTenths(int minimumTenths) {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        if (snapshot != null) {
+            return mapper.mapToMovieDtoList(snapshot.findMatching(MovieCriteria.withMinRating(minimumTenths)));
+        }
+        RatingIndex index = ratingIndex.getIfAvailable();
+        if (index == null || !index.isReady()) {
+            return movieRepository.findDtosByRatingTenthsAtLeast(minimumTenths);
+        }
+        long[] movieIds = index.idsAtLeast(minimumTenths);
+        List<MovieDto> movies = new ArrayList<>(movieIds.length);
+        for (int from = 0; from < movieIds.length; from += ID_LOOKUP_CHUNK) {
+            long[] chunk = Arrays.copyOfRange(movieIds, from, Math.min(movieIds.length, from + ID_LOOKUP_CHUNK));
+            movies.addAll(movieRepository.findDtosByMovieIdIn(Arrays.stream(chunk).boxed().toList()));
+        }
+        return movies;
+    }
+
+    // a snapshot catches up after the commit that bumps the catalogue version, so its generation is part of the key
+    private ListKey listKey(Object parameters) {
+        CatalogueSnapshot snapshot = servingSnapshot();
+        return new ListKey(parameters, snapshot == null ? 0 : snapshot.getGeneration());
+    }
+
+    private record ListKey(Object parameters, long snapshotGeneration) {
+    }
+
+    private static CachedMovieList nonEmpty(CachedMovieList movies) throws MovieNotFoundException {
+        if (movies.isEmpty()) {
+            throw new MovieNotFoundException();
+        }
+        return movies;
+    }
+
+    private List<Movie> findAllById(long[] movieIds) {
+        List<Movie> movies = new ArrayList<>(movieIds.length);
+        for (int from = 0; from < movieIds.length; from += ID_LOOKUP_CHUNK) {
+            long[] chunk = Arrays.copyOfRange(movieIds, from, Math.min(movieIds.length, from + ID_LOOKUP_CHUNK));
+            movieRepository.findAllById(Arrays.stream(chunk).boxed().toList()).forEach(movies::add);
+        }
+        return movies;
+    }
+
+    private int toMinimumTenths(String rating) throws InvalidRatingException {
+        // stored ratings have one decimal place, so "at least 7.25" means "at least 7.3"
+        return (int) Math.ceil(parseRating(rating) * 10 - 1e-9);
+    }
+
+    private int toMaximumTenths(String rating) throws InvalidRatingException {
+        return (int) Math.floor(parseRating(rating) * 10 + 1e-9);
+    }
+
+    private double parseRating(String rating) throws InvalidRatingException {
+        double expectedRating;
         try {
-            double expectedRating = Double.parseDouble(rating);
-            if (expectedRating < 0 || expectedRating > 10) {
+            expectedRating = Double.parseDouble(rating);
+            if (Double.isNaN(expectedRating) || expectedRating < 0 || expectedRating > 10) {
                 throw new InvalidRatingException();
             }
         } catch (NumberFormatException e) {
             throw new InvalidRatingException();
         }
+        return expectedRating;
+    }
 
-        List<Movie> moviesBetterThan = movieRepository.findAll().stream()
-                .filter(r -> r.getImdbStatus() != null)
-                .filter(ratings -> Double.parseDouble(ratings.getImdbStatus()) >= Double.parseDouble(rating))
-                .collect(Collectors.toList());
-        if (moviesBetterThan.isEmpty()) {
-            throw new MovieNotFoundException();
+    public MoviePageDto findDtoPage(String sort, String after, int limit) throws InvalidPageRequestException {
+        return findDtoPage(MovieCriteria.any(), sort, after, limit);
+    }
+
+    public MoviePageDto findDtoPageByStatus(String status, String sort, String after, int limit) throws InvalidStatusException, InvalidPageRequestException {
+        return findDtoPage(MovieCriteria.withStatus(checkIfStatusCorrect(status)), sort, after, limit);
+    }
+
+    public MoviePageDto findDtoPageByRating(String rating, String sort, String after, int limit) throws InvalidRatingException, InvalidPageRequestException {
+        return findDtoPage(MovieCriteria.withMinRating(toMinimumTenths(rating)), sort, after, limit);
+    }
+
+    public MoviePageDto findDtoPageMatching(List<String> statuses, String minRating, String maxRating,
+                                           Integer fromYear, Integer toYear, Integer maxDuration,
+                                           String sort, String after, int limit)
+            throws InvalidStatusException, InvalidRatingException, InvalidQueryException, InvalidPageRequestException {
+        return findDtoPage(toCriteria(statuses, minRating, maxRating, fromYear, toYear, maxDuration), sort, after, limit);
+    }
+
+    private MovieCriteria toCriteria(List<String> statuses, String minRating, String maxRating,
+                                     Integer fromYear, Integer toYear, Integer maxDuration)
+            throws InvalidStatusException, InvalidRatingException, InvalidQueryException {
+        Set<Status> expectedStatuses = EnumSet.noneOf(Status.class);
+        if (statuses != null) {
+            for (String status : statuses) {
+                expectedStatuses.add(checkIfStatusCorrect(status));
+            }
         }
-        return moviesBetterThan;
+        Integer minRatingTenths = minRating == null ? null : toMinimumTenths(minRating);
+        Integer maxRatingTenths = maxRating == null ? null : toMaximumTenths(maxRating);
+        if ((minRatingTenths != null && maxRatingTenths != null && minRatingTenths > maxRatingTenths)
+                || (fromYear != null && toYear != null && fromYear > toYear)
+                || (maxDuration != null && maxDuration < 0)) {
+            throw new InvalidQueryException();
+        }
+        return new MovieCriteria(expectedStatuses, minRatingTenths, maxRatingTenths, fromYear, toYear, maxDuration);
+    }
+
+    // one extra row tells whether another page exists without a count query; the rows are projected
+    // in the query unless a snapshot is serving
+    private MoviePageDto findDtoPage(MovieCriteria criteria, String sort, String after, int limit) throws InvalidPageRequestException {
+        checkPageSize(limit);
+        MovieSort movieSort = toMovieSort(sort);
+        String filter = criteria.key();
+        PageCursor cursor = toPageCursor(after, filter, movieSort);
+
+        CatalogueSnapshot snapshot = servingSnapshot();
+        if (snapshot != null) {
+            return mapper.mapToMoviePageDto(findSnapshotPage(snapshot, criteria, filter, movieSort, cursor, limit));
+        }
+        List<MovieRow> rows = movieRepository.findPageRows(criteria, movieSort, cursor, limit + 1);
+        if (rows.size() <= limit) {
+            return new MoviePageDto(mapper.mapRowsToMovieDtoList(rows), null);
+        }
+        List<MovieRow> page = rows.subList(0, limit);
+        return new MoviePageDto(mapper.mapRowsToMovieDtoList(page), PageCursor.after(filter, movieSort, page.get(limit - 1)).encode());
+    }
+
+    private static MoviePage findSnapshotPage(CatalogueSnapshot snapshot, MovieCriteria criteria, String filter,
+                                              MovieSort movieSort, PageCursor cursor, int limit) {
+        List<Movie> movies = snapshot.findPage(criteria, movieSort, cursor, limit + 1);
+        if (movies.size() <= limit) {
+            return new MoviePage(movies, null);
+        }
+        List<Movie> page = movies.subList(0, limit);
+        return new MoviePage(page, PageCursor.after(filter, movieSort, page.get(limit - 1)).encode());
+    }
+
+    private void checkPageSize(int limit) throws InvalidPageRequestException {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidPageRequestException();
+        }
+    }
+
+    private static PageCursor toPageCursor(String after, String filter, MovieSort sort) throws InvalidPageRequestException {
+        return after == null || after.isEmpty() ? null : PageCursor.decode(after, filter, sort);
+    }
+
+    private MovieSort toMovieSort(String sort) throws InvalidPageRequestException {
+        return switch (sort.toUpperCase(Locale.ROOT)) {
+            case "ID" -> MovieSort.ID;
+            case "TITLE" -> MovieSort.TITLE;
+            case "YEAR" -> MovieSort.YEAR;
+            case "RATING" -> MovieSort.RATING;
+            default -> throw new InvalidPageRequestException();
+        };
     }
 
     public Movie save(Movie movie) {
@@ -84,34 +539,145 @@ public class MovieService {
     }
 
     public Movie saveByTitle(String title) {
-        MovieInfoOMDBDto movieFromOMDB = omdbService.getMovieFromOMDB(title);
+        return titleSaves.execute(TitleNormalizer.normalize(title), () -> lookUpAndSave(title));
+    }
+
+    // the same title may be stored for other years, so duplicates are confirmed on the (title, year)
+    // the lookup resolved; a repeated add is answered from the OMDB cache without a request
+    private Movie lookUpAndSave(String title) {
         Movie newMovie;
-        if (movieFromOMDB.getResponse().equals("False")) {
-            newMovie = new Movie(title);
-        } else {
-            newMovie = new Movie(movieFromOMDB.getTitle());
-            newMovie.setYear(movieFromOMDB.getYear() == null || (movieFromOMDB.getYear().equals("N/A")) ? "0" : movieFromOMDB.getYear());
-            newMovie.setImdbStatus((movieFromOMDB.getImdbStatus() == null || movieFromOMDB.getImdbStatus().equalsIgnoreCase("N/A")) ? "0" : movieFromOMDB.getImdbStatus());
-            newMovie.setDuration((movieFromOMDB.getDuration() == null || (movieFromOMDB.getDuration().equals("N/A")) ? null : movieFromOMDB.getDuration()));
-        }
-        newMovie.setStatus(Status.WAITING_LIST);
+        try {
+            MovieInfoOMDBDto movieFromOMDB = omdbService.getMovieFromOMDB(title);
+            newMovie = mapper.mapToMovie(title, movieFromOMDB);
+        } catch (OMDBUnavailableException e) {
+            newMovie = mapper.mapToUnenrichedMovie(title);
+        }
+        if (movieKeyFilter.containsKey(newMovie.getNormalizedTitle(), newMovie.getYear())) {
+            throw new MovieAlreadyExistsException();
+        }
         save(newMovie);
         return newMovie;
     }
 
     public Movie updateStatus(String title, String status) throws MovieNotFoundException, InvalidStatusException {
-        Movie movieToUpdate = findByTitle(title);
-        movieToUpdate.setStatus(checkIfStatusCorrect(status));
+        try {
+            return updateStatus(title, status, null);
+        } catch (PreconditionFailedException e) {
+            throw new IllegalStateException("An update without If-Match has no precondition", e);
+        }
+    }
+
+    public Movie updateStatus(String title, String status, String ifMatch)
+            throws MovieNotFoundException, InvalidStatusException, PreconditionFailedException {
+        Status newStatus = checkIfStatusCorrect(status);
+        Movie movieToUpdate = loadByTitle(title);
+        if (!MovieETag.matches(ifMatch, movieToUpdate)) {
+            throw new PreconditionFailedException();
+        }
+        movieToUpdate.setStatus(newStatus);
         return save(movieToUpdate);
     }
 
+    public BulkUpdateResultDto updateStatusByIds(List<Long> movieIds, String status) throws InvalidStatusException, InvalidBulkUpdateException {
+        Status newStatus = checkIfStatusCorrect(status);
+        List<Long> ids = checkBulkKeys(movieIds);
+        long started = System.nanoTime();
+        int updated = inWriteTransaction(() -> {
+            int count = 0;
+            for (List<Long> chunk : chunks(ids)) {
+                count += movieRepository.updateStatusByMovieIdIn(newStatus, chunk);
+            }
+            return count;
+        }, MoviesBulkUpdatedEvent.of(ids));
+        return new BulkUpdateResultDto(ids.size(), updated, elapsedMillisSince(started));
+    }
+
+    public BulkUpdateResultDto updateStatusByTitles(List<String> titles, String status) throws InvalidStatusException, InvalidBulkUpdateException {
+        Status newStatus = checkIfStatusCorrect(status);
+        List<String> normalizedTitles = checkBulkKeys(titles).stream().map(TitleNormalizer::normalize).distinct().toList();
+        long started = System.nanoTime();
+        int updated = inWriteTransaction(() -> {
+            int count = 0;
+            for (List<String> chunk : chunks(normalizedTitles)) {
+                count += movieRepository.updateStatusByNormalizedTitleIn(newStatus, chunk);
+            }
+            return count;
+        }, MoviesBulkUpdatedEvent.unknown());
+        return new BulkUpdateResultDto(titles.size(), updated, elapsedMillisSince(started));
+    }
+
+    public BulkUpdateResultDto updateStatusMatching(List<String> currentStatuses, String minRating, String maxRating,
+                                                   Integer fromYear, Integer toYear, Integer maxDuration, String status)
+            throws InvalidStatusException, InvalidRatingException, InvalidQueryException, InvalidBulkUpdateException {
+        Status newStatus = checkIfStatusCorrect(status);
+        MovieCriteria criteria = toCriteria(currentStatuses, minRating, maxRating, fromYear, toYear, maxDuration);
+        if (criteria.matchesAll()) {
+            // an empty filter would regrade the whole catalogue
+            throw new InvalidBulkUpdateException();
+        }
+        long started = System.nanoTime();
+        int updated = inWriteTransaction(() -> movieRepository.updateStatus(criteria, newStatus), MoviesBulkUpdatedEvent.unknown());
+        return new BulkUpdateResultDto(null, updated, elapsedMillisSince(started));
+    }
+
+    private <T> List<T> checkBulkKeys(List<T> keys) throws InvalidBulkUpdateException {
+        List<T> present = keys == null ? List.of() : keys.stream().filter(Objects::nonNull).toList();
+        if (present.isEmpty() || present.size() > maxBulkKeys) {
+            throw new InvalidBulkUpdateException();
+        }
+        return present;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> keys) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += ID_LOOKUP_CHUNK) {
+            chunks.add(keys.subList(from, Math.min(keys.size(), from + ID_LOOKUP_CHUNK)));
+        }
+        return chunks;
+    }
+
+    private int inWriteTransaction(Supplier<Integer> update, MoviesBulkUpdatedEvent event) {
+        Integer updated = writeTransaction.execute(status -> {
+            int count = update.get();
+            if (count > 0) {
+                eventPublisher.publishEvent(event);
+            }
+            return count;
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    private static long elapsedMillisSince(long started) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
     public void deleteById(Long movieId) throws MovieNotFoundException {
-        findById(movieId);
-        movieRepository.deleteById(movieId);
+        try {
+            deleteById(movieId, null);
+        } catch (PreconditionFailedException e) {
+            throw new IllegalStateException("A delete without If-Match has no precondition", e);
+        }
+    }
+
+    public void deleteById(Long movieId, String ifMatch) throws MovieNotFoundException, PreconditionFailedException {
+        Movie movieToDelete = loadById(movieId);
+        if (!MovieETag.matches(ifMatch, movieToDelete)) {
+            throw new PreconditionFailedException();
+        }
+        // deleting the loaded entity checks its version, so a concurrent update fails instead of being lost
+        movieRepository.delete(movieToDelete);
+    }
+
+    public long deleteAllByStatus(String status) throws InvalidStatusException {
+        return movieDeletionService.deleteAllByStatus(checkIfStatusCorrect(status));
+    }
+
+    public DeletionTaskDto submitDeleteAllByStatus(String status) throws InvalidStatusException {
+        return movieDeletionService.submit(checkIfStatusCorrect(status));
     }
 
-    public void deleteAllByStatus(String status) throws InvalidStatusException {
-        movieRepository.deleteAllByStatus(checkIfStatusCorrect(status));
+    public DeletionTaskDto findDeletionTask(Long taskId) throws DeletionTaskNotFoundException {
+        return movieDeletionService.findTask(taskId);
     }
 }
 
@@ -1,30 +1,153 @@
 package com.example.movies_selector.service;
 
+import com.example.movies_selector.cache.OMDBCache;
 import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import com.example.movies_selector.domain.TitleNormalizer;
+import com.example.movies_selector.exceptions.OMDBUnavailableException;
+import com.example.movies_selector.offline.OfflineMovieIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
 
 @Service
 public class OMDBService {
 
+    static final String MOVIE_NOT_FOUND = "Movie not found!";
+
     @Value("${apikey}")
     private String apiKey;
 
-    private URI omdbUri(String title) {
-        return UriComponentsBuilder.fromHttpUrl("http://www.omdbapi.com/")
+    @Value("${omdb.url:http://www.omdbapi.com/}")
+    private String omdbUrl;
+
+    private final RestTemplate restTemplate;
+
+    private final OMDBCache omdbCache;
+
+    private final OfflineMovieIndex offlineIndex;
+
+    private final SingleFlight<String, MovieInfoOMDBDto> lookups = new SingleFlight<>();
+
+    private final TokenBucket rateLimiter;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Counter rateLimitedRejections;
+
+    private final Counter circuitOpenRejections;
+
+    @Autowired
+    public OMDBService(@Qualifier("omdbRestTemplate") RestTemplate restTemplate,
+                       OMDBCache omdbCache,
+                       OfflineMovieIndex offlineIndex,
+                       MeterRegistry meterRegistry,
+                       @Value("${omdb.rate-limit.burst:50}") long burst,
+                       @Value("${omdb.rate-limit.quota-per-day:1000}") long quotaPerDay,
+                       @Value("${omdb.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                       @Value("${omdb.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        this.restTemplate = restTemplate;
+        this.omdbCache = omdbCache;
+        this.offlineIndex = offlineIndex;
+        this.rateLimiter = new TokenBucket(burst, quotaPerDay, Duration.ofDays(1));
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration, (from, to) ->
+                meterRegistry.counter("omdb.circuit.transitions", "from", from.name(), "to", to.name()).increment());
+        this.rateLimitedRejections = meterRegistry.counter("omdb.rejections", "reason", "rate_limited");
+        this.circuitOpenRejections = meterRegistry.counter("omdb.rejections", "reason", "circuit_open");
+        FunctionCounter.builder("omdb.lookups.executed", lookups, SingleFlight::executedCount).register(meterRegistry);
+        FunctionCounter.builder("omdb.lookups.collapsed", lookups, SingleFlight::collapsedCount).register(meterRegistry);
+        Gauge.builder("omdb.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        Gauge.builder("omdb.rate-limit.available", rateLimiter, TokenBucket::availableTokens).register(meterRegistry);
+    }
+
+    private URI omdbUri(String title, String year) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromHttpUrl(omdbUrl)
                 .queryParam("apikey", apiKey)
-                .queryParam("t", title)
-                .encode().build().toUri();
+                .queryParam("t", title);
+        if (year != null) {
+            uri.queryParam("y", year);
+        }
+        return uri.encode().build().toUri();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
     }
 
     public MovieInfoOMDBDto getMovieFromOMDB(String title) {
-        RestTemplate restTemplate = new RestTemplate();
-        URI url = omdbUri(title);
-        return restTemplate.getForObject(url, MovieInfoOMDBDto.class);
+        String normalizedTitle = TitleNormalizer.normalize(title);
+        Optional<MovieInfoOMDBDto> offline = offlineIndex.lookup(normalizedTitle);
+        if (offline.isPresent()) {
+            return offline.get();
+        }
+        Optional<MovieInfoOMDBDto> cached = omdbCache.get(normalizedTitle);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return fetchAndCache(title, normalizedTitle);
+    }
+
+    /**
+     * Asks OMDB again, bypassing the caches. A known year narrows the lookup to that release, so a
+     * remake or an older version never answers for the stored movie; such answers are not cached,
+     * since they are not what a lookup by title alone returns.
+     */
+    public MovieInfoOMDBDto refreshMovieFromOMDB(String title, String year) {
+        String normalizedTitle = TitleNormalizer.normalize(title);
+        if (year == null) {
+            return fetchAndCache(title, normalizedTitle);
+        }
+        return lookups.execute(normalizedTitle + "|" + year, () -> fetchFromOMDB(title, year));
+    }
+
+    private MovieInfoOMDBDto fetchAndCache(String title, String normalizedTitle) {
+        return lookups.execute(normalizedTitle, () -> {
+            MovieInfoOMDBDto fetched = fetchFromOMDB(title, null);
+            omdbCache.put(normalizedTitle, fetched);
+            return fetched;
+        });
     }
-}
 
+    private MovieInfoOMDBDto fetchFromOMDB(String title, String year) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            circuitOpenRejections.increment();
+            throw new OMDBUnavailableException("OMDB circuit is open");
+        }
+        if (!rateLimiter.tryAcquire()) {
+            circuitBreaker.releasePermission();
+            rateLimitedRejections.increment();
+            throw new OMDBUnavailableException("OMDB request quota exhausted");
+        }
+        URI url = omdbUri(title, year);
+        try {
+            MovieInfoOMDBDto fetched = restTemplate.getForObject(url, MovieInfoOMDBDto.class);
+            if (fetched == null || fetched.getResponse() == null) {
+                circuitBreaker.onFailure();
+                throw new OMDBUnavailableException("Empty OMDB response");
+            }
+            // "Request limit reached!", "Invalid API key!" and the like say nothing about the title
+            if ("False".equals(fetched.getResponse()) && !MOVIE_NOT_FOUND.equals(fetched.getError())) {
+                circuitBreaker.onFailure();
+                throw new OMDBUnavailableException("OMDB error: " + fetched.getError());
+            }
+            circuitBreaker.onSuccess();
+            return fetched;
+        } catch (RestClientException e) {
+            circuitBreaker.onFailure();
+            throw new OMDBUnavailableException("OMDB request failed", e);
+        }
+    }
+}
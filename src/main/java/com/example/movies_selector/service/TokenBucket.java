@@ -0,0 +1,48 @@
+package com.example.movies_selector.service;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking token bucket: {@code capacity} tokens of burst, refilled continuously at
+ * {@code tokensPerPeriod} per {@code period}.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+
+    private final double tokensPerNano;
+
+    private double tokens;
+
+    private long lastRefill;
+
+    public TokenBucket(long capacity, long tokensPerPeriod, Duration period) {
+        if (capacity <= 0 || tokensPerPeriod <= 0) {
+            throw new IllegalArgumentException("capacity and tokensPerPeriod must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = (double) tokensPerPeriod / period.toNanos();
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double availableTokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
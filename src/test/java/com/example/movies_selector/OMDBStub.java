@@ -0,0 +1,107 @@
+package com.example.movies_selector;
+
+import com.example.movies_selector.domain.TitleNormalizer;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Local stand-in for omdbapi.com shared by every test context, so the tests neither depend on the
+ * real service nor spend its quota. Registered through META-INF/spring.factories; a test that needs
+ * different answers can still override omdb.url, as OMDBServiceTest does. Titles starting with
+ * "Shared" are answered after a short delay, and a year other than the canned one is not found,
+ * as OMDB does for {@code y=}.
+ */
+public class OMDBStub implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static final Map<String, String[]> MOVIES = Stream.of(
+                    movie("Matrix", "1993", "7.7", "60 min"),
+                    movie("300", "2006", "7.6", "117 min"),
+                    movie("Ender's Game", "2013", "6.6", "114 min"),
+                    movie("Pirates", "1986", "5.4", "112 min"),
+                    movie("Gigli", "2003", "2.6", "121 min"))
+            .collect(Collectors.toMap(movie -> TitleNormalizer.normalize(movie[0]), movie -> movie));
+
+    private static final String NOT_FOUND = "{\"Response\":\"False\",\"Error\":\"Movie not found!\"}";
+
+    private static final AtomicInteger requests = new AtomicInteger();
+
+    private static HttpServer server;
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        String url = "http://localhost:" + start().getAddress().getPort() + "/";
+        // last, so a test's own omdb.url still wins
+        context.getEnvironment().getPropertySources().addLast(new MapPropertySource("omdbStub", Map.of("omdb.url", url)));
+    }
+
+    public static int requestCount() {
+        return requests.get();
+    }
+
+    private static synchronized HttpServer start() {
+        if (server == null) {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            server.createContext("/", exchange -> {
+                requests.incrementAndGet();
+                String title = "";
+                String year = null;
+                for (String parameter : exchange.getRequestURI().getRawQuery().split("&")) {
+                    if (parameter.startsWith("t=")) {
+                        title = URLDecoder.decode(parameter.substring(2), StandardCharsets.UTF_8);
+                    } else if (parameter.startsWith("y=")) {
+                        year = URLDecoder.decode(parameter.substring(2), StandardCharsets.UTF_8);
+                    }
+                }
+                if (TitleNormalizer.normalize(title).startsWith("shared")) {
+                    // keeps the lookup in flight long enough for concurrent callers to join it
+                    sleep(300);
+                }
+                String[] movie = MOVIES.get(TitleNormalizer.normalize(title));
+                String answer = movie == null || (year != null && !year.equals(movie[1])) ? NOT_FOUND : movie[2];
+                byte[] bytes = answer.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "omdb-stub");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+        }
+        return server;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String[] movie(String title, String year, String rating, String runtime) {
+        return new String[]{title, year, "{\"Title\":\"" + title + "\",\"Year\":\"" + year + "\",\"imdbRating\":\"" + rating
+                + "\",\"Runtime\":\"" + runtime + "\",\"Response\":\"True\"}"};
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.movies_selector.cache;
+
+import com.example.movies_selector.domain.CachedMovieList;
+import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MovieListEncoding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovieListCacheTest {
+
+    private static List<MovieDto> movies(int count) {
+        List<MovieDto> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            movies.add(new MovieDto((long) i + 1, "Movie " + i, "1999", "120 min", "GOOD", "7.5", 0L));
+        }
+        return movies;
+    }
+
+    @Nested
+    @DisplayName("Test byte bound")
+    class TestByteBound {
+
+        @DisplayName("get - remembered binary forms count against the byte bound and evict the oldest results")
+        @Test
+        void encodedFormsCountAgainstBound() throws IOException {
+            //Given
+            long listBytes = new CachedMovieList(movies(100), 0).retainedBytes();
+            MovieListCache cache = new MovieListCache(new SimpleMeterRegistry(), 64, 50000, listBytes * 2 + 16, Duration.ofMinutes(10));
+            CachedMovieList first = cache.get("all", 1, () -> movies(100));
+            CachedMovieList second = cache.get("all", 2, () -> movies(100));
+
+            //When
+            second.encode(MovieListEncoding.COLUMNAR);
+
+            //Then
+            assertTrue(second.retainedBytes() > listBytes + 16);
+            assertSame(second, cache.get("all", 2, () -> movies(100)));
+            assertNotSame(first, cache.get("all", 1, () -> movies(100)));
+        }
+
+        @DisplayName("get - results within the byte bound are served from the cache")
+        @Test
+        void resultsWithinBoundAreKept() {
+            //Given
+            MovieListCache cache = new MovieListCache(new SimpleMeterRegistry(), 64, 50000, 1 << 20, Duration.ofMinutes(10));
+
+            //When
+            CachedMovieList first = cache.get("all", 1, () -> movies(100));
+
+            //Then
+            assertSame(first, cache.get("all", 1, () -> movies(100)));
+        }
+    }
+}
@@ -1,36 +1,57 @@
 package com.example.movies_selector.controller;
 
+import com.example.movies_selector.domain.BulkImportResultDto;
+import com.example.movies_selector.domain.DeletionTaskDto;
+import com.example.movies_selector.domain.ImportOutcome;
 import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MovieListEncoding;
+import com.example.movies_selector.exceptions.InvalidImportException;
 import com.example.movies_selector.exceptions.InvalidRatingException;
 import com.example.movies_selector.exceptions.InvalidStatusException;
 import com.example.movies_selector.exceptions.MovieNotFoundException;
+import com.example.movies_selector.exceptions.PreconditionFailedException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 public class MovieControllerTest {
 
     @Autowired
     MovieController movieController;
 
+    @Autowired
+    MockMvc mockMvc;
+
     @Nested
     @DisplayName("Test findAllMovies")
     class TestFindAllMovies {
 
         @DisplayName("findAllMovies - non Empty List")
         @Test
-        public void testFindAll() throws MovieNotFoundException {
+        public void testFindAll() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("300");
             movieController.addMovie("Pirates");
@@ -45,8 +66,8 @@ public class MovieControllerTest {
             //CleanUp
             Long id_300 = allMoviesResponse.getBody().get(0).getMovieId();
             Long id_Pirates = allMoviesResponse.getBody().get(1).getMovieId();
-            movieController.deleteMovieById(id_300);
-            movieController.deleteMovieById(id_Pirates);
+            movieController.deleteMovieById(id_300, null);
+            movieController.deleteMovieById(id_Pirates, null);
         }
 
         @DisplayName("findAllMovies - empty List")
@@ -67,7 +88,7 @@ public class MovieControllerTest {
     class TestFindMovieById {
         @DisplayName("findMovieById - Id exists in the database")
         @Test
-        public void testFindMovieByIdPositiveOutput() throws MovieNotFoundException {
+        public void testFindMovieByIdPositiveOutput() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("300");
             Long id = movieController.findAllMovies().getBody().get(0).getMovieId();
@@ -79,12 +100,12 @@ public class MovieControllerTest {
             assertEquals("300", movieByIdResponse.getBody().getMovieTitle());
 
             //CleanUp
-            movieController.deleteMovieById(id);
+            movieController.deleteMovieById(id, null);
         }
 
         @DisplayName("findMovieById - Id does not exists in the database")
         @Test
-        public void testFindMovieByINegativeOutput() throws MovieNotFoundException {
+        public void testFindMovieByINegativeOutput() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("300");
             Long id = movieController.findAllMovies().getBody().get(0).getMovieId();
@@ -93,7 +114,7 @@ public class MovieControllerTest {
             assertThrows(MovieNotFoundException.class, () -> movieController.findMovieById(-1L));
 
             //CleanUp
-            movieController.deleteMovieById(id);
+            movieController.deleteMovieById(id, null);
         }
     }
 
@@ -103,7 +124,7 @@ public class MovieControllerTest {
 
         @DisplayName("findMovieByTitle - title exists in the database")
         @Test
-        public void testFindMovieByTitlePositiveOutput() throws MovieNotFoundException {
+        public void testFindMovieByTitlePositiveOutput() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
 
@@ -116,12 +137,33 @@ public class MovieControllerTest {
 
             //CleanUp
             Long id = movieController.findAllMovies().getBody().get(0).getMovieId();
-            movieController.deleteMovieById(id);
+            movieController.deleteMovieById(id, null);
+        }
+
+        @DisplayName("findMovieByTitle - ETag changes when the movie is updated")
+        @Test
+        public void testFindMovieByTitleETag() throws MovieNotFoundException, InvalidStatusException, PreconditionFailedException {
+            //Given
+            movieController.addMovie("Matrix");
+            String before = movieController.findMovieByTitle("Matrix").getHeaders().getETag();
+
+            //When
+            String returnedByUpdate = movieController.updateStatus("Matrix", "GOOD", null).getHeaders().getETag();
+            String after = movieController.findMovieByTitle("Matrix").getHeaders().getETag();
+
+            //Then
+            assertNotNull(before);
+            assertNotEquals(before, after);
+            assertEquals(after, returnedByUpdate);
+
+            //CleanUp
+            Long id = movieController.findAllMovies().getBody().get(0).getMovieId();
+            movieController.deleteMovieById(id, null);
         }
 
         @DisplayName("findMovieByTitle - title does not exists in the database")
         @Test
-        public void testFindMovieByTitleNegativeOutput() throws MovieNotFoundException {
+        public void testFindMovieByTitleNegativeOutput() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
 
@@ -133,7 +175,7 @@ public class MovieControllerTest {
 
             //CleanUp
             Long id = movieController.findAllMovies().getBody().get(0).getMovieId();
-            movieController.deleteMovieById(id);
+            movieController.deleteMovieById(id, null);
         }
     }
 
@@ -142,7 +184,7 @@ public class MovieControllerTest {
     class TestFindMoviesByStatus {
         @DisplayName("findMoviesByStatus - movie exists in the database, status ok")
         @Test
-        public void testFindMoviesByStatusPositiveOutput() throws MovieNotFoundException, InvalidStatusException {
+        public void testFindMoviesByStatusPositiveOutput() throws MovieNotFoundException, InvalidStatusException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
 
@@ -155,12 +197,12 @@ public class MovieControllerTest {
 
             //CleanUp
             Long id = movieController.findAllMovies().getBody().get(0).getMovieId();
-            movieController.deleteMovieById(id);
+            movieController.deleteMovieById(id, null);
         }
 
         @DisplayName("findMoviesByStatus - movie does not exist in the database, status ok")
         @Test
-        public void testFindMoviesByStatusNegativeOutput() throws MovieNotFoundException {
+        public void testFindMoviesByStatusNegativeOutput() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
 
@@ -169,12 +211,12 @@ public class MovieControllerTest {
 
             //CleanUp
             Long id = movieController.findAllMovies().getBody().get(0).getMovieId();
-            movieController.deleteMovieById(id);
+            movieController.deleteMovieById(id, null);
         }
 
         @DisplayName("findMoviesByStatus - movie exists in the database, status incorrect")
         @Test
-        public void testFindMoviesByStatusNegativeOutputStatusIncorrect() throws MovieNotFoundException {
+        public void testFindMoviesByStatusNegativeOutputStatusIncorrect() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
 
@@ -183,7 +225,7 @@ public class MovieControllerTest {
 
             //CleanUp
             Long id = movieController.findAllMovies().getBody().get(0).getMovieId();
-            movieController.deleteMovieById(id);
+            movieController.deleteMovieById(id, null);
         }
     }
 
@@ -193,7 +235,7 @@ public class MovieControllerTest {
 
         @DisplayName("findMoviesByRating - movie exists in the database")
         @Test
-        public void testFindMoviesByRatingPositiveOutput() throws MovieNotFoundException, InvalidRatingException {
+        public void testFindMoviesByRatingPositiveOutput() throws MovieNotFoundException, InvalidRatingException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
@@ -211,13 +253,13 @@ public class MovieControllerTest {
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
         }
 
         @DisplayName("findMoviesByRating - movie does not exist in the database")
         @Test
-        public void testFindMoviesByRatingNegativeOutput() throws MovieNotFoundException {
+        public void testFindMoviesByRatingNegativeOutput() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
@@ -228,8 +270,8 @@ public class MovieControllerTest {
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
         }
     }
 
@@ -239,7 +281,7 @@ public class MovieControllerTest {
 
         @DisplayName("addMovie - movie does not exist in the database")
         @Test
-        public void testAddMoviePositiveOutput() throws MovieNotFoundException {
+        public void testAddMoviePositiveOutput() throws MovieNotFoundException, PreconditionFailedException {
 
             //Given
             String title = "Matrix";
@@ -253,12 +295,12 @@ public class MovieControllerTest {
 
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
+            movieController.deleteMovieById(idMatrix, null);
         }
 
         @DisplayName("addMovie - movie exists in the database")
         @Test
-        public void testAddMovieNegativeOutput() throws MovieNotFoundException {
+        public void testAddMovieNegativeOutput() throws MovieNotFoundException, PreconditionFailedException {
 
             //Given
             String title = "Matrix";
@@ -269,7 +311,60 @@ public class MovieControllerTest {
 
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
+            movieController.deleteMovieById(idMatrix, null);
+        }
+    }
+
+    @Nested
+    @DisplayName("addMovies")
+    class TestAddMovies {
+
+        @DisplayName("addMovies - list with new, repeated and existing titles")
+        @Test
+        public void testAddMoviesOutcomes() throws MovieNotFoundException, InvalidImportException, PreconditionFailedException {
+            //Given
+            movieController.addMovie("Matrix");
+
+            //When
+            ResponseEntity<BulkImportResultDto> imported = movieController.addMovies(List.of("Matrix", "Ender's Game", "Ender's Game", " "));
+
+            //Then
+            assertThat(imported.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertEquals(3, imported.getBody().getTotal());
+            assertEquals(1, imported.getBody().getCreated());
+            assertEquals(2, imported.getBody().getDuplicates());
+            assertEquals(ImportOutcome.DUPLICATE, imported.getBody().getResults().get(0).getOutcome());
+            assertEquals(ImportOutcome.CREATED, imported.getBody().getResults().get(1).getOutcome());
+            assertEquals(2, movieController.findAllMovies().getBody().size());
+
+            //CleanUp
+            Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
+            Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
+        }
+
+        @DisplayName("addMoviesFromLines - newline separated titles")
+        @Test
+        public void testAddMoviesFromLines() throws MovieNotFoundException, InvalidImportException, PreconditionFailedException {
+            //When
+            ResponseEntity<BulkImportResultDto> imported = movieController.addMoviesFromLines("Matrix\r\nEnder's Game\n");
+
+            //Then
+            assertEquals(2, imported.getBody().getCreated());
+
+            //CleanUp
+            Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
+            Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
+        }
+
+        @DisplayName("addMovies - empty list")
+        @Test
+        public void testAddMoviesEmpty() {
+            //When & Then
+            assertThrows(InvalidImportException.class, () -> movieController.addMovies(List.of()));
         }
     }
 
@@ -279,14 +374,14 @@ public class MovieControllerTest {
 
         @DisplayName("updateStatus - movie exists in the database, status ok")
         @Test
-        public void testUpdateStatusPositiveOutput() throws MovieNotFoundException, InvalidStatusException {
+        public void testUpdateStatusPositiveOutput() throws MovieNotFoundException, InvalidStatusException, PreconditionFailedException {
 
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
 
             //When
-            ResponseEntity<Void> movieUpdatedStatus = movieController.updateStatus("Matrix", "GOOD");
+            ResponseEntity<Void> movieUpdatedStatus = movieController.updateStatus("Matrix", "GOOD", null);
             List<MovieDto> listWithStatusGOOD = movieController.findMoviesByStatus("GOOD").getBody();
 
             //Then
@@ -296,44 +391,44 @@ public class MovieControllerTest {
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
         }
 
         @DisplayName("updateStatus - movie does not exist in the database, status ok")
         @Test
-        public void testAddMovieNegativeOutput() throws MovieNotFoundException {
+        public void testAddMovieNegativeOutput() throws MovieNotFoundException, PreconditionFailedException {
 
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
 
             //When & Then
-            assertThrows(MovieNotFoundException.class, () -> movieController.updateStatus("aaaaaa", "GOOD"));
+            assertThrows(MovieNotFoundException.class, () -> movieController.updateStatus("aaaaaa", "GOOD", null));
 
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
         }
 
         @DisplayName("updateStatus - movie exists in the database, status incorrect")
         @Test
-        public void testAddMovieNegativeOutputStatusIncorrect() throws MovieNotFoundException {
+        public void testAddMovieNegativeOutputStatusIncorrect() throws MovieNotFoundException, PreconditionFailedException {
 
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
 
             //When & Then
-            assertThrows(InvalidStatusException.class, () -> movieController.updateStatus("Matrix", "aaaaa"));
+            assertThrows(InvalidStatusException.class, () -> movieController.updateStatus("Matrix", "aaaaa", null));
 
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
         }
     }
 
@@ -343,7 +438,7 @@ public class MovieControllerTest {
 
         @DisplayName("deleteMovieById - movie exists in the database")
         @Test
-        public void testDeleteMovieByIdPositiveOutput() throws MovieNotFoundException {
+        public void testDeleteMovieByIdPositiveOutput() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
@@ -351,19 +446,19 @@ public class MovieControllerTest {
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
 
             // When
-            ResponseEntity<Void> movieDeletedById = movieController.deleteMovieById(idMatrix);
+            ResponseEntity<Void> movieDeletedById = movieController.deleteMovieById(idMatrix, null);
 
             //Then
             assertThat(movieDeletedById.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
             assertEquals(1, movieController.findAllMovies().getBody().size());
 
             //CleanUp
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idEnder, null);
         }
 
         @DisplayName("deleteMovieById - movie does not exist in the database")
         @Test
-        public void testDeleteMovieByINegativeOutput() throws MovieNotFoundException {
+        public void testDeleteMovieByINegativeOutput() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
@@ -371,11 +466,11 @@ public class MovieControllerTest {
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
 
             //When & Then
-            assertThrows(MovieNotFoundException.class, () -> movieController.deleteMovieById(Long.MAX_VALUE));
+            assertThrows(MovieNotFoundException.class, () -> movieController.deleteMovieById(Long.MAX_VALUE, null));
 
             //CleanUp
-            movieController.deleteMovieById(idMatrix);
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
         }
     }
 
@@ -394,32 +489,54 @@ public class MovieControllerTest {
             ResponseEntity<Void> moviesDeletedByStatus = movieController.deleteMoviesByStatus("WAITING_LIST");
 
             //Then
-            assertThat(moviesDeletedByStatus.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            assertThat(moviesDeletedByStatus.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertEquals("2", moviesDeletedByStatus.getHeaders().getFirst(MovieController.DELETED_COUNT_HEADER));
+            assertEquals(0, movieController.findAllMovies().getBody().size());
+        }
+
+        @DisplayName("deleteMoviesByStatus - async deletion is accepted as a task")
+        @Test
+        public void testDeleteMoviesByStatusAsync() throws Exception {
+            //Given
+            movieController.addMovie("Matrix");
+
+            //When
+            ResponseEntity<DeletionTaskDto> task = movieController.deleteMoviesByStatusAsync("WAITING_LIST");
+            Long taskId = task.getBody().getTaskId();
+            DeletionTaskDto progress = movieController.findDeletionTask(taskId).getBody();
+            for (int i = 0; i < 100 && progress.getFinishedAt() == null; i++) {
+                Thread.sleep(100);
+                progress = movieController.findDeletionTask(taskId).getBody();
+            }
+
+            //Then
+            assertThat(task.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            assertEquals("COMPLETED", progress.getStatus());
             assertEquals(0, movieController.findAllMovies().getBody().size());
         }
 
         @DisplayName("deleteMoviesByStatus - movie does not exist in the database")
         @Test
-        public void testDeleteMovieByINegativeOutput() throws MovieNotFoundException, InvalidStatusException {
+        public void testDeleteMovieByINegativeOutput() throws MovieNotFoundException, InvalidStatusException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
             ResponseEntity<Void> moviesDeletedByStatus = movieController.deleteMoviesByStatus("BAD");
 
             //When & Then
-            assertThat(moviesDeletedByStatus.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            assertThat(moviesDeletedByStatus.getStatusCode()).isEqualTo(HttpStatus.OK);
             assertEquals(2, movieController.findAllMovies().getBody().size());
 
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
         }
 
         @DisplayName("deleteMoviesByStatus - incorrect status")
         @Test
-        public void testDeleteMovieByINegativeOutputIncorrectStatus() throws MovieNotFoundException {
+        public void testDeleteMovieByINegativeOutputIncorrectStatus() throws MovieNotFoundException, PreconditionFailedException {
             //Given
             movieController.addMovie("Matrix");
             movieController.addMovie("Ender's Game");
@@ -430,10 +547,73 @@ public class MovieControllerTest {
             //CleanUp
             Long idMatrix = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
             Long idEnder = movieController.findMovieByTitle("Ender's Game").getBody().getMovieId();
-            movieController.deleteMovieById(idMatrix);
-            movieController.deleteMovieById(idEnder);
+            movieController.deleteMovieById(idMatrix, null);
+            movieController.deleteMovieById(idEnder, null);
         }
     }
-}
 
+    @Nested
+    @DisplayName("Test conditional requests")
+    class TestConditionalRequests {
 
+        @DisplayName("findMovieById / updateStatus / deleteMovieById - If-None-Match answers 304, a stale If-Match answers 412")
+        @Test
+        public void testConditionalRequests() throws Exception {
+            //Given
+            movieController.addMovie("Matrix");
+            Long id = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
+            String etag = mockMvc.perform(get("/movies/Id/{movieId}", id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            //When & Then
+            mockMvc.perform(get("/movies/Id/{movieId}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+            mockMvc.perform(put("/movies").param("title", "Matrix").param("status", "GOOD").header(HttpHeaders.IF_MATCH, etag))
+                    .andExpect(status().isAccepted());
+            mockMvc.perform(put("/movies").param("title", "Matrix").param("status", "BAD").header(HttpHeaders.IF_MATCH, etag))
+                    .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(delete("/movies/{movieId}", id).header(HttpHeaders.IF_MATCH, etag))
+                    .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(get("/movies/Id/{movieId}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("GOOD"));
+
+            //CleanUp
+            movieController.deleteMovieById(id, null);
+        }
+    }
+
+    @Nested
+    @DisplayName("Test content negotiation")
+    class TestContentNegotiation {
+
+        @DisplayName("findAllMovies / findMovieById - binary forms are offered for lists only, JSON stays the default")
+        @Test
+        public void testBinaryFormatsOnlyForLists() throws Exception {
+            //Given
+            movieController.addMovie("Matrix");
+            Long id = movieController.findMovieByTitle("Matrix").getBody().getMovieId();
+            byte[] cbor = MovieListEncoding.CBOR.encode(movieController.findAllMovies().getBody());
+
+            //When & Then
+            mockMvc.perform(get("/movies"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+            mockMvc.perform(get("/movies").accept(MovieListEncoding.CBOR.getMediaType()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MovieListEncoding.CBOR.getMediaType()))
+                    .andExpect(content().bytes(cbor));
+            for (MovieListEncoding encoding : MovieListEncoding.values()) {
+                mockMvc.perform(get("/movies/Id/{movieId}", id).accept(encoding.getMediaType()))
+                        .andExpect(status().isNotAcceptable());
+            }
+            mockMvc.perform(get("/movies/title/{title}", "Matrix").accept(MovieListEncoding.SMILE.getMediaType()))
+                    .andExpect(status().isNotAcceptable());
+
+            //CleanUp
+            movieController.deleteMovieById(id, null);
+        }
+    }
+}
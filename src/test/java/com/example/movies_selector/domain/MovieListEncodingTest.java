@@ -0,0 +1,81 @@
+package com.example.movies_selector.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieListEncodingTest {
+
+    private final List<MovieDto> movies = List.of(
+            new MovieDto(1L, "Matrix", "1999", "136 min", "VERY_GOOD", "8.7", 0L),
+            new MovieDto(2L, "Unrated", null, null, "WAITING_LIST", null, 0L));
+
+    @Nested
+    @DisplayName("Test row encodings")
+    class TestRows {
+
+        @DisplayName("CBOR and Smile - one array per movie with the status ordinal and the rating in tenths")
+        @Test
+        void rowsCarryOrdinalAndTenths() throws IOException {
+            for (ObjectMapper objectMapper : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+                //When
+                MovieListEncoding encoding = objectMapper.getFactory() instanceof CBORFactory ? MovieListEncoding.CBOR : MovieListEncoding.SMILE;
+                JsonNode rows = objectMapper.readTree(encoding.encode(movies));
+
+                //Then
+                assertEquals(2, rows.size());
+                assertEquals(1L, rows.get(0).get(0).asLong());
+                assertEquals("Matrix", rows.get(0).get(1).asText());
+                assertEquals(Status.VERY_GOOD.ordinal(), rows.get(0).get(4).asInt());
+                assertEquals(87, rows.get(0).get(5).asInt());
+                assertTrue(rows.get(1).get(2).isNull());
+                assertTrue(rows.get(1).get(5).isNull());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Test columnar encoding")
+    class TestColumnar {
+
+        @DisplayName("COLUMNAR - columns follow each other in the documented order")
+        @Test
+        void columnsInOrder() throws IOException {
+            //When
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(MovieListEncoding.COLUMNAR.encode(movies)));
+
+            //Then
+            assertEquals(2, in.readInt());
+            assertEquals(1L, in.readLong());
+            assertEquals(2L, in.readLong());
+            assertEquals("Matrix", readString(in));
+            assertEquals("Unrated", readString(in));
+            assertEquals("1999", readString(in));
+            assertNull(readString(in));
+            assertEquals("136 min", readString(in));
+            assertNull(readString(in));
+            assertEquals(Status.VERY_GOOD.ordinal(), in.readByte());
+            assertEquals(Status.WAITING_LIST.ordinal(), in.readByte());
+            assertEquals(87, in.readShort());
+            assertEquals(-1, in.readShort());
+            assertEquals(-1, in.read());
+        }
+
+        private String readString(DataInputStream in) throws IOException {
+            int length = in.readInt();
+            return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.movies_selector.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void hasNoFalseNegativesAndStaysNearTheConfiguredRate() {
+        //Given
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+
+        //When
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("movie " + i + "|" + (1950 + i % 70));
+        }
+
+        //Then
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("movie " + i + "|" + (1950 + i % 70)));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other movie " + i + "|" + (1950 + i % 70))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieCriteria;
+import com.example.movies_selector.domain.MovieETag;
+import com.example.movies_selector.domain.MoviePageDto;
+import com.example.movies_selector.domain.MovieSort;
+import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.domain.TitleNormalizer;
+import com.example.movies_selector.exceptions.MovieNotFoundException;
+import com.example.movies_selector.repository.MovieRepository;
+import com.example.movies_selector.service.MovieService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "movies.snapshot.enabled=true")
+class CatalogueSnapshotTest {
+
+    @Autowired
+    CatalogueSnapshotHolder snapshotHolder;
+
+    @Autowired
+    MovieService movieService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    private Movie saveMovie(String title, String year, String rating, Status status) {
+        Movie movie = new Movie(title);
+        movie.setYear(year);
+        movie.setImdbStatus(rating);
+        movie.setStatus(status);
+        return movieRepository.save(movie);
+    }
+
+    private static Movie movie(long movieId, String title, String year, String rating) {
+        return Movie.restore(movieId, 0L, title, TitleNormalizer.normalize(title), year, Movie.toReleaseYear(year),
+                Status.WAITING_LIST, rating, Movie.toRatingTenths(rating), null, null, null, null);
+    }
+
+    @Nested
+    @DisplayName("Test snapshot synchronisation")
+    class TestSynchronisation {
+
+        @DisplayName("saving, updating and deleting movies is reflected after a refresh")
+        @Test
+        void snapshotFollowsChanges() throws Exception {
+            //Given
+            Movie matrix = saveMovie("Matrix", "1999", "8.7", Status.WAITING_LIST);
+            Movie endersGame = saveMovie("Ender's Game", "2013", "6.6", Status.GOOD);
+            snapshotHolder.refresh();
+            long generation = snapshotHolder.current().getGeneration();
+
+            //When
+            movieService.updateStatus("Matrix", "VERY_GOOD");
+            movieService.deleteById(endersGame.getMovieId());
+            snapshotHolder.refresh();
+
+            //Then
+            CatalogueSnapshot snapshot = snapshotHolder.current();
+            assertTrue(snapshot.getGeneration() > generation);
+            assertEquals(1, snapshot.size());
+            assertEquals(Status.VERY_GOOD, movieService.findByTitle("matrix").getStatus());
+            assertEquals(matrix.getVersion() + 1, movieService.findById(matrix.getMovieId()).getVersion());
+            assertThrows(MovieNotFoundException.class, () -> movieService.findById(endersGame.getMovieId()));
+            assertFalse(movieService.isServingStaleSnapshot());
+            assertTrue(snapshot.memoryBytes() > 0);
+
+            //CleanUp
+            movieRepository.deleteAll();
+            snapshotHolder.refresh();
+            assertEquals(0, snapshotHolder.current().size());
+        }
+
+        @DisplayName("reads by id and title right after a write see it and its ETag, without a manual refresh")
+        @Test
+        void readsSeeOwnWrites() throws Exception {
+            //Given
+            Movie matrix = saveMovie("Matrix", "1999", "8.7", Status.WAITING_LIST);
+            snapshotHolder.refresh();
+
+            //When & Then
+            for (Status status : List.of(Status.GOOD, Status.BAD, Status.VERY_GOOD)) {
+                String ifMatch = MovieETag.of(movieService.findByTitle("Matrix"));
+                Movie updated = movieService.updateStatus("Matrix", status.name(), ifMatch);
+
+                assertEquals(status, movieService.findById(matrix.getMovieId()).getStatus());
+                assertEquals(status, movieService.findByTitle("matrix").getStatus());
+                assertEquals(MovieETag.of(updated), MovieETag.of(movieService.findById(matrix.getMovieId())));
+            }
+
+            //CleanUp
+            movieRepository.deleteAll();
+            snapshotHolder.refresh();
+        }
+
+        @DisplayName("pages read from the snapshot follow the same order as the database")
+        @Test
+        void pagesMatchDatabaseOrder() throws Exception {
+            //Given
+            saveMovie("Matrix", "1999", "8.7", Status.WAITING_LIST);
+            saveMovie("Ender's Game", "2013", "6.6", Status.GOOD);
+            saveMovie("Alien", "1979", "8.5", Status.GOOD);
+            saveMovie("Unrated", null, null, Status.GOOD);
+            snapshotHolder.refresh();
+
+            //When
+            List<String> titles = new ArrayList<>();
+            MoviePageDto page = movieService.findDtoPage("rating", null, 2);
+            page.getMovies().forEach(movie -> titles.add(movie.getMovieTitle()));
+            page = movieService.findDtoPage("rating", page.getNext(), 2);
+            page.getMovies().forEach(movie -> titles.add(movie.getMovieTitle()));
+
+            //Then
+            assertEquals(List.of("Ender's Game", "Alien", "Matrix", "Unrated"), titles);
+            assertNull(page.getNext());
+            assertEquals(3, movieService.findByStatus("GOOD").size());
+            assertEquals(2, movieService.findByRating("8").size());
+
+            //CleanUp
+            movieRepository.deleteAll();
+            snapshotHolder.refresh();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test snapshot changes")
+    class TestChanges {
+
+        @DisplayName("applying changes gives the same snapshot as building it again")
+        @Test
+        void withChangesMatchesRebuild() {
+            //Given
+            CatalogueSnapshot snapshot = CatalogueSnapshot.builder(4, new HashMap<>())
+                    .add(movie(1, "Matrix", "1999", "8.7"))
+                    .add(movie(2, "Alien", "1979", "8.5"))
+                    .add(movie(4, "Gigli", "2003", "2.6"))
+                    .build(1, Instant.now());
+
+            //When
+            CatalogueSnapshot changed = snapshot.withChanges(new long[]{2, 3, 4},
+                    List.of(movie(3, "Brazil", "1985", "7.9"), movie(4, "Gigli", "2003", "9.9")), new HashMap<>(), Instant.now());
+
+            //Then
+            assertEquals(2, changed.getGeneration());
+            assertEquals(List.of(1L, 3L, 4L), changed.findAll().stream().map(Movie::getMovieId).toList());
+            assertNull(changed.findById(2));
+            assertEquals("Brazil", changed.findFirstByNormalizedTitle("brazil").getTitle());
+            assertEquals(List.of("Brazil", "Matrix", "Gigli"),
+                    changed.findPage(MovieCriteria.any(), MovieSort.RATING, null, 10).stream().map(Movie::getTitle).toList());
+            assertEquals(List.of("Brazil", "Gigli", "Matrix"),
+                    changed.findPage(MovieCriteria.any(), MovieSort.TITLE, null, 10).stream().map(Movie::getTitle).toList());
+            assertEquals(3, snapshot.size());
+            assertTrue(snapshot.asStale().isStale());
+            assertFalse(snapshot.isStale());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.movies_selector.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTest {
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        //Given
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        //When
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING).intValue(), map.remove(key));
+                expected.remove(key);
+            } else {
+                int value = random.nextInt(101);
+                assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING).intValue(), map.put(key, value));
+                expected.put(key, value);
+            }
+        }
+
+        //Then
+        assertEquals(expected.size(), map.size());
+        for (long key = 1; key <= 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, LongIntHashMap.MISSING).intValue(), map.get(key));
+        }
+    }
+}
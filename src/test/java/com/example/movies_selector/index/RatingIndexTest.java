@@ -0,0 +1,88 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.exceptions.InvalidRatingException;
+import com.example.movies_selector.exceptions.MovieNotFoundException;
+import com.example.movies_selector.repository.MovieRepository;
+import com.example.movies_selector.service.MovieService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "movies.rating-index.enabled=true")
+class RatingIndexTest {
+
+    @Autowired
+    RatingIndex ratingIndex;
+
+    @Autowired
+    MovieService movieService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    private Movie saveMovie(String title, String rating) {
+        Movie movie = new Movie(title);
+        movie.setStatus(Status.WAITING_LIST);
+        movie.setImdbStatus(rating);
+        return movieRepository.save(movie);
+    }
+
+    @Nested
+    @DisplayName("Test index synchronisation")
+    class TestSynchronisation {
+
+        @DisplayName("saving, re-rating and deleting movies is reflected in the index")
+        @Test
+        void indexFollowsChanges() {
+            //Given
+            Movie matrix = saveMovie("Matrix", "8.7");
+            Movie endersGame = saveMovie("Ender's Game", "6.6");
+            Movie unrated = saveMovie("Unrated", "N/A");
+
+            //When & Then
+            assertTrue(ratingIndex.isReady());
+            assertArrayEquals(new long[]{matrix.getMovieId()}, ratingIndex.idsAtLeast(70));
+            assertEquals(2, ratingIndex.size());
+
+            endersGame.setImdbStatus("7.2");
+            movieRepository.save(endersGame);
+            assertArrayEquals(new long[]{endersGame.getMovieId(), matrix.getMovieId()}, ratingIndex.idsAtLeast(70));
+
+            movieRepository.deleteById(matrix.getMovieId());
+            assertArrayEquals(new long[]{endersGame.getMovieId()}, ratingIndex.idsAtLeast(70));
+            assertFalse(ratingIndex.memoryBytes() <= 0);
+            assertNotNull(unrated.getMovieId());
+
+            //CleanUp
+            movieRepository.deleteAll();
+            assertEquals(0, ratingIndex.size());
+        }
+
+        @DisplayName("findByRating answers from the index")
+        @Test
+        void findByRatingUsesIndex() throws MovieNotFoundException, InvalidRatingException {
+            //Given
+            saveMovie("Matrix", "8.7");
+            saveMovie("Ender's Game", "6.6");
+
+            //When
+            List<Movie> movies = movieService.findByRating("8.7");
+
+            //Then
+            assertEquals(1, movies.size());
+            assertEquals("Matrix", movies.get(0).getTitle());
+            assertThrows(MovieNotFoundException.class, () -> movieService.findByRating("9"));
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.movies_selector.index;
+
+import com.example.movies_selector.domain.TitleSearchHit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleTrigramIndexTest {
+
+    private TitleTrigramIndex indexOf(String... titles) {
+        TitleTrigramIndex index = new TitleTrigramIndex();
+        for (int i = 0; i < titles.length; i++) {
+            index.put(i + 1, titles[i]);
+        }
+        return index;
+    }
+
+    private List<String> titlesOf(List<TitleSearchHit> hits) {
+        return hits.stream().map(TitleSearchHit::title).toList();
+    }
+
+    @DisplayName("prefix matches come first, shortest title ranked highest")
+    @Test
+    void prefixMatches() {
+        //Given
+        TitleTrigramIndex index = indexOf("The Matrix Reloaded", "The Matrix", "Heat", "The Mask");
+
+        //When
+        List<TitleSearchHit> hits = index.search("the MA", 2);
+
+        //Then
+        assertEquals(List.of("The Mask", "The Matrix"), titlesOf(hits));
+    }
+
+    @DisplayName("the best prefix match is returned even when it sorts after the limit")
+    @Test
+    void prefixMatchesRankedBeforeLimit() {
+        //Given
+        TitleTrigramIndex index = indexOf("Alien Resurrection", "Alien vs. Predator", "Aliens in the Attic", "Alien", "Aliens");
+
+        //When
+        List<TitleSearchHit> hits = index.search("alien", 2);
+
+        //Then
+        assertEquals(List.of("Alien", "Aliens"), titlesOf(hits));
+    }
+
+        @DisplayName("misspelled titles are found through shared trigrams")
+    @Test
+    void typoTolerantMatches() {
+        //Given
+        TitleTrigramIndex index = indexOf("The Matrix", "Heat", "Ender's Game", "Am\u00e9lie");
+
+        //When & Then
+        assertEquals("The Matrix", index.search("the matirx", 5).get(0).title());
+        assertEquals("Ender's Game", index.search("enders gmae", 5).get(0).title());
+        assertEquals("Am\u00e9lie", index.search("amelie", 5).get(0).title());
+        assertTrue(index.search("zzzz", 5).isEmpty());
+    }
+
+    @DisplayName("removed and renamed movies disappear from results, also after compaction")
+    @Test
+    void removalsAndCompaction() {
+        //Given
+        TitleTrigramIndex index = new TitleTrigramIndex();
+        for (int i = 1; i <= 5000; i++) {
+            index.put(i, "Movie " + i);
+        }
+        index.put(5001, "The Matrix");
+
+        //When
+        for (int i = 1; i <= 4000; i++) {
+            index.remove(i);
+        }
+        index.put(5001, "Heat");
+
+        //Then
+        assertEquals(1001, index.size());
+        assertTrue(index.search("the matrix", 5).stream().noneMatch(hit -> hit.movieId() == 5001));
+        assertEquals(5001, index.search("heat", 1).get(0).movieId());
+        assertEquals(List.of("Movie 4001"), titlesOf(index.search("movie 4001", 1)));
+        assertTrue(index.search("movie 12", 10).stream().allMatch(hit -> hit.movieId() > 4000));
+    }
+
+    @DisplayName("fuzzy searches past the posting budget are counted as truncated")
+    @Test
+    void truncatedSearches() {
+        //Given
+        TitleTrigramIndex small = indexOf("The Matrix", "Heat");
+        TitleTrigramIndex large = new TitleTrigramIndex();
+        for (int i = 1; i <= 20000; i++) {
+            large.put(i, "The Movie " + i);
+        }
+        large.put(20001, "The Matrix");
+
+        //When
+        List<TitleSearchHit> smallHits = small.search("the matirx", 5);
+        List<TitleSearchHit> largeHits = large.search("the matirx", 5);
+
+        //Then
+        assertEquals("The Matrix", smallHits.get(0).title());
+        assertEquals(0, small.truncatedSearches());
+        assertEquals("The Matrix", largeHits.get(0).title());
+        assertEquals(1, large.truncatedSearches());
+    }
+}
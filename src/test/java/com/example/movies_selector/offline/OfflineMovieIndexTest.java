@@ -0,0 +1,103 @@
+package com.example.movies_selector.offline;
+
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfflineMovieIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private Path writeDump(String name, Instant modified, String... lines) throws IOException {
+        Path dumps = Files.createDirectories(directory.resolve("dumps"));
+        Path dump = Files.write(dumps.resolve(name), String.join("\n", lines).getBytes());
+        Files.setLastModifiedTime(dump, FileTime.from(modified));
+        return dump;
+    }
+
+    private OfflineMovieIndex openIndex() {
+        OfflineMovieIndex index = new OfflineMovieIndex(directory.resolve("movies.idx").toString(),
+                directory.resolve("dumps").toString(), new SimpleMeterRegistry());
+        index.open();
+        return index;
+    }
+
+    @DisplayName("lookup - title present in the dump, case and accents ignored")
+    @Test
+    void testLookupPositiveOutput() throws IOException {
+        //Given
+        writeDump("2024.tsv", Instant.parse("2024-01-01T00:00:00Z"),
+                "title\tyear\trating\truntime",
+                "Amélie\t2001\t8.3\t122",
+                "Matrix\t1993\t7.7\t60 min");
+
+        //When
+        OfflineMovieIndex index = openIndex();
+        MovieInfoOMDBDto amelie = index.lookup("amelie").orElseThrow();
+
+        //Then
+        assertEquals(2, index.size());
+        assertEquals("Amélie", amelie.getTitle());
+        assertEquals("2001", amelie.getYear());
+        assertEquals("8.3", amelie.getImdbStatus());
+        assertEquals("122 min", amelie.getDuration());
+        assertEquals("True", amelie.getResponse());
+        assertTrue(index.lookup("matrix").isPresent());
+    }
+
+    @DisplayName("lookup - title missing from the dump or unknown values")
+    @Test
+    void testLookupNegativeOutput() throws IOException {
+        //Given
+        writeDump("2024.tsv", Instant.parse("2024-01-01T00:00:00Z"), "Shoah\t1985\t\\N\t\\N");
+
+        //When
+        OfflineMovieIndex index = openIndex();
+
+        //Then
+        assertTrue(index.lookup("not in the dump").isEmpty());
+        assertEquals("N/A", index.lookup("shoah").orElseThrow().getImdbStatus());
+        assertEquals("N/A", index.lookup("shoah").orElseThrow().getDuration());
+    }
+
+    @DisplayName("refresh - newer dump is merged into the existing index")
+    @Test
+    void testIncrementalRefresh() throws IOException {
+        //Given
+        writeDump("2024.tsv", Instant.parse("2024-01-01T00:00:00Z"), "Matrix\t1993\t7.7\t60", "Dune\t1984\t6.3\t137");
+        OfflineMovieIndex index = openIndex();
+
+        //When
+        writeDump("2025.tsv", Instant.parse("2025-01-01T00:00:00Z"), "Matrix\t1993\t7.8\t60", "Heat\t1995\t8.3\t170");
+        index.refresh();
+
+        //Then
+        assertEquals(3, index.size());
+        assertEquals("7.8", index.lookup("matrix").orElseThrow().getImdbStatus());
+        assertEquals("6.3", index.lookup("dune").orElseThrow().getImdbStatus());
+        assertTrue(openIndex().lookup("heat").isPresent());
+    }
+
+    @DisplayName("open - index disabled without a path")
+    @Test
+    void testDisabledIndex() {
+        //When
+        OfflineMovieIndex index = new OfflineMovieIndex("", "", new SimpleMeterRegistry());
+        index.open();
+
+        //Then
+        assertFalse(index.isEnabled());
+        assertTrue(index.lookup("matrix").isEmpty());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.movies_selector.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate sends on the current thread, so tests can look at the statement a
+ * repository method actually generates.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        statements.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        statements.get().clear();
+    }
+
+    public static List<String> captured() {
+        return List.copyOf(statements.get());
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.movies_selector.repository;
 
 import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieCriteria;
+import com.example.movies_selector.domain.MovieSort;
 import com.example.movies_selector.domain.Status;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -8,13 +10,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
 
+import java.sql.ResultSet;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.movies_selector.repository.CapturingStatementInspector")
 public class MovieRepositoryTest {
 
     @Autowired
@@ -261,33 +269,40 @@ public class MovieRepositoryTest {
     }
 
     @Nested
-    @DisplayName("Test deleteAllByStatus")
-    class TestDeleteAllByStatus {
+    @DisplayName("Test lockIdsByStatus and deleteByMovieIdIn")
+    class TestDeleteByStatusChunks {
 
-        @DisplayName("deleteAllByStatus() - movie with this status exists in the database")
+        @DisplayName("lockIdsByStatus() / deleteByMovieIdIn() - movies with this status exist in the database")
         @Test
-        public void testDeleteAllByStatusPositiveOutput() {
+        public void testDeleteByStatusChunksPositiveOutput() {
             //Given
             Movie movie1 = new Movie("300");
             Movie movie2 = new Movie(("400"));
+            Movie movie3 = new Movie(("500"));
             movie1.setStatus(Status.BAD);
             movie2.setStatus(Status.BAD);
+            movie3.setStatus(Status.GOOD);
             movieRepository.save(movie1);
             movieRepository.save(movie2);
+            movieRepository.save(movie3);
 
             //When
-            movieRepository.deleteAllByStatus(Status.BAD);
+            List<Long> movieIds = movieRepository.lockIdsByStatus(Status.BAD, PageRequest.of(0, 1));
+            int deleted = movieRepository.deleteByMovieIdIn(movieIds);
 
             //Then
-            assertEquals(0, movieRepository.findAll().size());
+            assertEquals(List.of(movie1.getMovieId()), movieIds);
+            assertEquals(1, deleted);
+            assertEquals(List.of(movie2.getMovieId()), movieRepository.lockIdsByStatus(Status.BAD, PageRequest.of(0, 10)));
+            assertEquals(2, movieRepository.findAll().size());
 
             //CleanUp
             movieRepository.deleteAll();
         }
 
-        @DisplayName("deleteAllByStatus() - movie with this status does not exist in the database")
+        @DisplayName("lockIdsByStatus() - movie with this status does not exist in the database")
         @Test
-        public void testDeleteAllByStatusNegativeOutput() {
+        public void testDeleteByStatusChunksNegativeOutput() {
             //Given
             Movie movie1 = new Movie("300");
             Movie movie2 = new Movie(("400"));
@@ -297,16 +312,106 @@ public class MovieRepositoryTest {
             movieRepository.save(movie2);
 
             //When
-            movieRepository.deleteAllByStatus(Status.WAITING_LIST);
+            List<Long> movieIds = movieRepository.lockIdsByStatus(Status.WAITING_LIST, PageRequest.of(0, 10));
 
             //Then
+            assertTrue(movieIds.isEmpty());
             assertEquals(2, movieRepository.findAll().size());
 
             //CleanUp
             movieRepository.deleteAll();
         }
     }
-}
 
+    @Nested
+    @DisplayName("Test findByRatingTenthsGreaterThanEqual")
+    class TestFindByRatingTenthsGreaterThanEqual {
+
+        @DisplayName("findByRatingTenthsGreaterThanEqual() - boundary rating is included, N/A is skipped")
+        @Test
+        public void testFindByRatingTenthsGreaterThanEqual() {
+            //Given
+            Movie movie1 = new Movie("300");
+            Movie movie2 = new Movie("400");
+            Movie movie3 = new Movie("500");
+            movie1.setImdbStatus("7.5");
+            movie2.setImdbStatus("7.4");
+            movie3.setImdbStatus("N/A");
+            movieRepository.save(movie1);
+            movieRepository.save(movie2);
+            movieRepository.save(movie3);
+
+            //When
+            List<Movie> moviesList = movieRepository.findByRatingTenthsGreaterThanEqual(75);
+
+            //Then
+            assertEquals(1, moviesList.size());
+            assertEquals("300", moviesList.get(0).getTitle());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test query plans")
+    class TestQueryPlans {
+
+        @Autowired
+        JdbcTemplate jdbcTemplate;
+
+        // EXPLAIN of the statement findPage sent, with its parameters bound again in the same order
+        private String explainFindPage(MovieCriteria criteria, List<Object> parameters) {
+            CapturingStatementInspector.clear();
+            movieRepository.findPage(criteria, MovieSort.ID, null, 10);
+            List<String> selects = CapturingStatementInspector.captured().stream()
+                    .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("select"))
+                    .toList();
+            assertEquals(1, selects.size(), selects.toString());
+            return jdbcTemplate.execute("EXPLAIN " + selects.get(0), (PreparedStatementCallback<String>) statement -> {
+                assertEquals(parameters.size(), statement.getParameterMetaData().getParameterCount(), selects.get(0));
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    StringBuilder lines = new StringBuilder();
+                    while (plan.next()) {
+                        lines.append(plan.getString(1)).append('\n');
+                    }
+                    return lines.toString();
+                }
+            });
+        }
 
+        @DisplayName("findPage - status with a rating range and year with duration are served by the matching composite indexes")
+        @Test
+        public void testCombinedFiltersUseIndexes() {
+            //Given
+            Status[] statuses = Status.values();
+            for (int i = 0; i < 2000; i++) {
+                Movie movie = new Movie("Movie " + i);
+                movie.setStatus(statuses[i % statuses.length]);
+                movie.setImdbStatus(String.valueOf((i % 100) / 10.0));
+                movie.setYear(String.valueOf(1950 + i % 70));
+                movie.setDuration((80 + i % 90) + " min");
+                movieRepository.save(movie);
+            }
+            jdbcTemplate.execute("ANALYZE");
 
+            //When
+            String statusAndRating = explainFindPage(
+                    new MovieCriteria(EnumSet.of(Status.GOOD), 90, null, null, null, null),
+                    List.of("GOOD", 90, 11));
+            String yearAndDuration = explainFindPage(
+                    new MovieCriteria(EnumSet.noneOf(Status.class), null, null, 1990, 1992, 100),
+                    List.of(1990, 1992, 100, 11));
+
+            //Then
+            assertTrue(statusAndRating.contains("IDX_MOVIES_STATUS_RATING"), statusAndRating);
+            assertTrue(yearAndDuration.contains("IDX_MOVIES_RELEASE_YEAR_DURATION"), yearAndDuration);
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+}
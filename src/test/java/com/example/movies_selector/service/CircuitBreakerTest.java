@@ -0,0 +1,64 @@
+package com.example.movies_selector.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final List<String> transitions = new ArrayList<>();
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(2, Duration.ofMillis(50),
+            (from, to) -> transitions.add(from + "->" + to));
+
+    @DisplayName("circuit breaker - opens after consecutive failures and rejects calls")
+    @Test
+    void testOpensAfterThreshold() {
+        //When
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        //Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @DisplayName("circuit breaker - half-open lets one trial call through and closes on success")
+    @Test
+    void testHalfOpenTrialCloses() throws InterruptedException {
+        //Given
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        Thread.sleep(60);
+
+        //When & Then
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @DisplayName("circuit breaker - failed trial call re-opens the circuit")
+    @Test
+    void testHalfOpenTrialReopens() throws InterruptedException {
+        //Given
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        Thread.sleep(60);
+
+        //When
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure();
+
+        //Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.ImportJob;
+import com.example.movies_selector.domain.ImportJobDto;
+import com.example.movies_selector.domain.ImportJobItem;
+import com.example.movies_selector.domain.ImportJobStatus;
+import com.example.movies_selector.domain.ImportOutcome;
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.exceptions.ImportJobNotFoundException;
+import com.example.movies_selector.exceptions.InvalidImportException;
+import com.example.movies_selector.repository.ImportJobItemRepository;
+import com.example.movies_selector.repository.ImportJobRepository;
+import com.example.movies_selector.repository.MovieRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ImportJobServiceTest {
+
+    @Autowired
+    ImportJobService importJobService;
+
+    @Autowired
+    ImportJobRepository importJobRepository;
+
+    @Autowired
+    ImportJobItemRepository importJobItemRepository;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    ConfigurableApplicationContext applicationContext;
+
+    private ImportJobDto awaitCompletion(Long jobId) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            ImportJobDto job = importJobService.findById(jobId);
+            if (job.getStatus().equals("COMPLETED")) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        fail("Import job did not complete");
+        return null;
+    }
+
+    @Nested
+    @DisplayName("Test submit")
+    class TestSubmit {
+
+        @DisplayName("submit - job is queued and drained in the background")
+        @Test
+        void testSubmitPositiveOutput() throws Exception {
+            //When
+            ImportJobDto submitted = importJobService.submit(List.of("Matrix", "Ender's Game", "Matrix"));
+            ImportJobDto completed = awaitCompletion(submitted.getJobId());
+
+            //Then
+            assertEquals(3, submitted.getTotal());
+            assertEquals(3, completed.getProcessed());
+            assertEquals(2, completed.getCreated());
+            assertEquals(1, completed.getDuplicates());
+            assertEquals(0L, completed.getEtaSeconds());
+            assertEquals(2, movieRepository.findAll().size());
+
+            //CleanUp
+            movieRepository.deleteAll();
+            importJobItemRepository.deleteAll();
+            importJobRepository.deleteAll();
+        }
+
+        @DisplayName("submit - no titles")
+        @Test
+        void testSubmitNegativeOutput() {
+            //When & Then
+            assertThrows(InvalidImportException.class, () -> importJobService.submit(List.of(" ", "")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test resumeUnfinishedJobs")
+    class TestResumeUnfinishedJobs {
+
+        @DisplayName("resumeUnfinishedJobs - a job left running by a previous process is finished once the application is ready")
+        @Test
+        void testResumeRunningJob() throws Exception {
+            //Given
+            ImportJob interrupted = new ImportJob(2);
+            interrupted.setStatus(ImportJobStatus.RUNNING);
+            interrupted.setStartedAt(Instant.now());
+            interrupted.recordOutcome(ImportOutcome.NOT_FOUND);
+            Long jobId = importJobRepository.save(interrupted).getJobId();
+            ImportJobItem done = new ImportJobItem(jobId, 0, "CatRunThroughKeyboard");
+            done.setOutcome(ImportOutcome.NOT_FOUND);
+            importJobItemRepository.saveAll(List.of(done, new ImportJobItem(jobId, 1, "Ender's Game")));
+
+            //When
+            applicationContext.publishEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], applicationContext, Duration.ZERO));
+            ImportJobDto completed = awaitCompletion(jobId);
+
+            //Then
+            assertEquals(2, completed.getProcessed());
+            assertEquals(1, completed.getNotFound());
+            assertEquals(1, completed.getCreated());
+            assertEquals(List.of("Ender's Game"), movieRepository.findAll().stream().map(Movie::getTitle).toList());
+
+            //CleanUp
+            movieRepository.deleteAll();
+            importJobItemRepository.deleteAll();
+            importJobRepository.deleteAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test findById")
+    class TestFindById {
+
+        @DisplayName("findById - job does not exist")
+        @Test
+        void testFindByIdNegativeOutput() {
+            //When & Then
+            assertThrows(ImportJobNotFoundException.class, () -> importJobService.findById(Long.MAX_VALUE));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.repository.MovieRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MovieBackfillServiceTest {
+
+    @Autowired
+    MovieBackfillService movieBackfillService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    // a row written before the derived columns existed
+    private void insertLegacyRow(long movieId, String title) {
+        jdbcTemplate.update("INSERT INTO MOVIES (ID, TITLE, PRODUCTION_YEAR, IMDB_RATING, DURATION, MY_STATUS, VERSION)"
+                + " VALUES (?, ?, '2001', '8.3', '122 min', 'WAITING_LIST', 0)", movieId, title);
+    }
+
+    @Nested
+    @DisplayName("Test backfillDerivedColumns")
+    class TestBackfillDerivedColumns {
+
+        @DisplayName("backfillDerivedColumns - titles colliding once normalized still get their numeric columns and are visited once")
+        @Test
+        void testCollidingNormalizedTitles() {
+            //Given
+            insertLegacyRow(900_001, "Amélie");
+            insertLegacyRow(900_002, "Amelie");
+
+            //When
+            int visited = movieBackfillService.backfillDerivedColumns();
+
+            //Then
+            Movie accented = movieRepository.findById(900_001L).orElseThrow();
+            Movie plain = movieRepository.findById(900_002L).orElseThrow();
+            assertEquals(2, visited);
+            assertEquals("amelie", accented.getNormalizedTitle());
+            assertEquals("amelie #900002", plain.getNormalizedTitle());
+            for (Movie movie : new Movie[]{accented, plain}) {
+                assertEquals(83, movie.getRatingTenths());
+                assertEquals(2001, movie.getReleaseYear());
+                assertEquals(122, movie.getDurationMinutes());
+            }
+            assertEquals(0, movieBackfillService.backfillDerivedColumns());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("backfillDerivedColumns - stand-ins for missing values are visited once, not on every run")
+        @Test
+        void testStandInsVisitedOnce() {
+            //Given
+            jdbcTemplate.update("INSERT INTO MOVIES (ID, TITLE, PRODUCTION_YEAR, IMDB_RATING, DURATION, MY_STATUS, VERSION)"
+                    + " VALUES (900003, 'Unknown Film', '0', 'N/A', 'N/A', 'WAITING_LIST', 0)");
+
+            //When
+            int firstRun = movieBackfillService.backfillDerivedColumns();
+            int secondRun = movieBackfillService.backfillDerivedColumns();
+
+            //Then
+            Movie movie = movieRepository.findById(900_003L).orElseThrow();
+            assertEquals(1, firstRun);
+            assertEquals(0, secondRun);
+            assertEquals("unknown film", movie.getNormalizedTitle());
+            assertNull(movie.getRatingTenths());
+            assertNull(movie.getReleaseYear());
+            assertNull(movie.getDurationMinutes());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("backfillDerivedColumns - colliding titles without a rating are converted once, not on every run")
+        @Test
+        void testCollidingTitlesWithoutRatingVisitedOnce() {
+            //Given
+            insertLegacyRow(900_004, "Léon");
+            insertLegacyRow(900_005, "Leon");
+            jdbcTemplate.update("UPDATE MOVIES SET IMDB_RATING = 'N/A' WHERE ID IN (900004, 900005)");
+
+            //When
+            int firstRun = movieBackfillService.backfillDerivedColumns();
+            int secondRun = movieBackfillService.backfillDerivedColumns();
+
+            //Then
+            assertEquals(2, firstRun);
+            assertEquals(0, secondRun);
+            assertEquals("leon #900005", movieRepository.findById(900_005L).orElseThrow().getNormalizedTitle());
+            assertEquals(122, movieRepository.findById(900_005L).orElseThrow().getDurationMinutes());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.repository.MovieRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MovieBatchWriterTest {
+
+    @Autowired
+    MovieBatchWriter movieBatchWriter;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Nested
+    @DisplayName("Test insertAll")
+    class TestInsertAll {
+
+        @DisplayName("insertAll - writes every movie across several flushes with distinct ids")
+        @Test
+        void testInsertAllAcrossFlushes() {
+            //Given
+            List<Movie> movies = new ArrayList<>();
+            for (int i = 0; i < 1_234; i++) {
+                Movie movie = new Movie("Movie " + i);
+                movie.setStatus(Status.WAITING_LIST);
+                movies.add(movie);
+            }
+
+            //When
+            movieBatchWriter.insertAll(movies);
+
+            //Then
+            assertEquals(1_234, movieRepository.count());
+            assertEquals(1_234, movies.stream().map(Movie::getMovieId).distinct().count());
+            assertTrue(movies.stream().allMatch(movie -> movie.getMovieId() != null));
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.EnrichmentReportDto;
+import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.mapper.MoviesMapper;
+import com.example.movies_selector.repository.MovieRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MovieEnrichmentServiceTest {
+
+    @Autowired
+    MovieEnrichmentService movieEnrichmentService;
+
+    @Autowired
+    MovieRepository movieRepository;
+
+    @Autowired
+    MoviesMapper mapper;
+
+    @Nested
+    @DisplayName("Test enrichStaleMovies")
+    class TestEnrichStaleMovies {
+
+        @DisplayName("enrichStaleMovies - movie saved while OMDB was unavailable gets its details")
+        @Test
+        void testEnrichPendingMovie() {
+            //Given
+            Movie pending = movieRepository.save(mapper.mapToUnenrichedMovie("Matrix"));
+
+            //When
+            EnrichmentReportDto report = movieEnrichmentService.enrichStaleMovies(false);
+
+            //Then
+            Movie enriched = movieRepository.findById(pending.getMovieId()).orElseThrow();
+            assertEquals(1, report.getUpdated());
+            assertEquals("7.7", enriched.getImdbStatus());
+            assertEquals("1993", enriched.getYear());
+            assertNull(enriched.getEnrichmentPending());
+            assertNotNull(enriched.getLastEnrichedAt());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("enrichStaleMovies - dry run does not write anything")
+        @Test
+        void testEnrichDryRun() {
+            //Given
+            Movie pending = movieRepository.save(mapper.mapToUnenrichedMovie("Matrix"));
+
+            //When
+            EnrichmentReportDto report = movieEnrichmentService.enrichStaleMovies(true);
+
+            //Then
+            Movie untouched = movieRepository.findById(pending.getMovieId()).orElseThrow();
+            assertEquals(1, report.getUpdated());
+            assertNull(untouched.getImdbStatus());
+            assertTrue(untouched.getEnrichmentPending());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("enrichStaleMovies - freshly enriched movies are skipped")
+        @Test
+        void testEnrichSkipsFreshMovies() {
+            //Given
+            Movie fresh = mapper.mapToUnenrichedMovie("Matrix");
+            fresh.setEnrichmentPending(null);
+            fresh.setImdbStatus("7.7");
+            fresh.setDuration("60 min");
+            fresh.setLastEnrichedAt(Instant.now());
+            movieRepository.save(fresh);
+
+            //When
+            EnrichmentReportDto report = movieEnrichmentService.enrichStaleMovies(false);
+
+            //Then
+            assertEquals(0, report.getLookups());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("enrichStaleMovies - a movie of another year keeps its details and is not looked up by title alone")
+        @Test
+        void testEnrichKeepsOtherRelease() {
+            //Given
+            Movie remake = mapper.mapToUnenrichedMovie("Matrix");
+            remake.setEnrichmentPending(null);
+            remake.setYear("1999");
+            remake.setImdbStatus("8.7");
+            remake.setDuration("136 min");
+            remake = movieRepository.save(remake);
+
+            //When
+            EnrichmentReportDto report = movieEnrichmentService.enrichStaleMovies(false);
+
+            //Then
+            Movie untouched = movieRepository.findById(remake.getMovieId()).orElseThrow();
+            assertEquals(1, report.getLookups());
+            assertEquals(0, report.getUpdated());
+            assertEquals(0, report.getFailed());
+            assertEquals("1999", untouched.getYear());
+            assertEquals("8.7", untouched.getImdbStatus());
+            assertEquals("136 min", untouched.getDuration());
+            assertNotNull(untouched.getLastEnrichedAt());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("enrichStaleMovies - a movie whose year would collide with a stored one is skipped, the rest of the page is written")
+        @Test
+        void testEnrichSkipsCollidingYear() {
+            //Given
+            Movie stored = mapper.mapToUnenrichedMovie("Matrix");
+            stored.setEnrichmentPending(null);
+            stored.setYear("1993");
+            stored.setImdbStatus("7.7");
+            stored.setDuration("60 min");
+            stored.setLastEnrichedAt(Instant.now());
+            movieRepository.save(stored);
+            Movie unknownYear = movieRepository.save(mapper.mapToUnenrichedMovie("Matrix"));
+            Movie gigli = movieRepository.save(mapper.mapToUnenrichedMovie("Gigli"));
+
+            //When
+            EnrichmentReportDto report = movieEnrichmentService.enrichStaleMovies(false);
+
+            //Then
+            assertEquals(1, report.getSkipped());
+            assertEquals(1, report.getUpdated());
+            assertEquals(0, report.getFailed());
+            assertNull(movieRepository.findById(unknownYear.getMovieId()).orElseThrow().getYear());
+            assertEquals("2003", movieRepository.findById(gigli.getMovieId()).orElseThrow().getYear());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+}
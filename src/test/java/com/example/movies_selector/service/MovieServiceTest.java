@@ -1,18 +1,46 @@
 package com.example.movies_selector.service;
 
+import com.example.movies_selector.OMDBStub;
+import com.example.movies_selector.domain.BulkUpdateResultDto;
+import com.example.movies_selector.domain.CachedMovieList;
+import com.example.movies_selector.domain.DeletionTaskDto;
 import com.example.movies_selector.domain.Movie;
+import com.example.movies_selector.domain.MovieDto;
+import com.example.movies_selector.domain.MovieETag;
+import com.example.movies_selector.domain.MovieCriteria;
+import com.example.movies_selector.domain.MoviePageDto;
+import com.example.movies_selector.domain.MovieSort;
+import com.example.movies_selector.domain.PageCursor;
 import com.example.movies_selector.domain.Status;
+import com.example.movies_selector.domain.TitleSearchHit;
+import com.example.movies_selector.exceptions.DeletionTaskNotFoundException;
+import com.example.movies_selector.exceptions.InvalidBulkUpdateException;
+import com.example.movies_selector.exceptions.InvalidPageRequestException;
+import com.example.movies_selector.exceptions.InvalidQueryException;
 import com.example.movies_selector.exceptions.InvalidRatingException;
 import com.example.movies_selector.exceptions.InvalidStatusException;
+import com.example.movies_selector.exceptions.MovieAlreadyExistsException;
 import com.example.movies_selector.exceptions.MovieNotFoundException;
+import com.example.movies_selector.exceptions.PreconditionFailedException;
 import com.example.movies_selector.repository.MovieRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,6 +53,9 @@ class MovieServiceTest {
     @Autowired
     MovieRepository movieRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
 
     @Nested
     @DisplayName("Test findAll")
@@ -111,6 +142,22 @@ class MovieServiceTest {
             movieRepository.deleteAll();
         }
 
+        @DisplayName("findByTitle - lookup ignores accents and repeated whitespace")
+        @Test
+        void testFindByTitleNormalized() throws MovieNotFoundException {
+            //Given
+            Movie movie = new Movie("Am\u00e9lie");
+            movie.setStatus(Status.WAITING_LIST);
+            movieService.save(movie);
+
+            //When & Then
+            assertEquals("Am\u00e9lie", movieService.findByTitle("  AMELIE ").getTitle());
+            assertEquals("amelie", movieRepository.findAll().get(0).getNormalizedTitle());
+
+            //ClenUp
+            movieRepository.deleteAll();
+        }
+
         @DisplayName("findByTitle - movie does not exist in the database")
         @Test
         void testFindByTitleNegativeOutput() {
@@ -125,6 +172,35 @@ class MovieServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Test findDtoById / findDtoByTitle")
+    class TestFindDto {
+
+        @DisplayName("findDtoById / findDtoByTitle - projected movie carries the version of the entity")
+        @Test
+        void testFindDtoMatchesEntity() throws MovieNotFoundException {
+            //Given
+            movieService.saveByTitle("Matrix");
+            Movie matrix = movieRepository.findAll().get(0);
+
+            //When
+            MovieDto byId = movieService.findDtoById(matrix.getMovieId());
+            MovieDto byTitle = movieService.findDtoByTitle("mAtrIX");
+
+            //Then
+            assertEquals("Matrix", byId.getMovieTitle());
+            assertEquals(matrix.getVersion(), byId.getVersion());
+            assertEquals(MovieETag.of(matrix), MovieETag.of(byId));
+            assertEquals(MovieETag.of(matrix), MovieETag.of(byTitle));
+            assertEquals(MovieETag.of(movieService.findById(matrix.getMovieId())), MovieETag.of(movieService.findDtoById(matrix.getMovieId())));
+            assertThrows(MovieNotFoundException.class, () -> movieService.findDtoById(matrix.getMovieId() + 1));
+            assertThrows(MovieNotFoundException.class, () -> movieService.findDtoByTitle("Not - Matrix"));
+
+            //ClenUp
+            movieRepository.deleteAll();
+        }
+    }
+
     @Nested
     @DisplayName("Test checkIfStatusCorrect")
     class TestCheckIfStatusCorrect {
@@ -306,6 +382,73 @@ class MovieServiceTest {
             //ClenUp
             movieRepository.deleteAll();
         }
+
+        @DisplayName("saveByTitle - movie already exists in the database, answered without an OMDB request")
+        @Test
+        void saveByTitleAlreadyExists() {
+            //Given
+            movieService.saveByTitle("Matrix");
+            int requestsBefore = OMDBStub.requestCount();
+
+            //When & Then
+            assertThrows(MovieAlreadyExistsException.class, () -> movieService.saveByTitle("  MATRIX "));
+            assertEquals(requestsBefore, OMDBStub.requestCount());
+            assertEquals(1, movieService.findAll().size());
+
+            //ClenUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("saveByTitle - the same title stored for another year is not a duplicate")
+        @Test
+        void saveByTitleOtherYearIsNotDuplicate() {
+            //Given
+            Movie remake = new Movie("Matrix");
+            remake.setYear("2021");
+            movieService.save(remake);
+
+            //When
+            Movie savedMovie = movieService.saveByTitle("matrix");
+
+            //Then
+            assertEquals("1993", savedMovie.getYear());
+            assertEquals(2, movieService.findAll().size());
+
+            //ClenUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("saveByTitle - concurrent saves of the same title share one lookup, one insert and one result")
+        @Test
+        void saveByTitleConcurrentCallsCollapsed() throws Exception {
+            //Given
+            int callers = 8;
+            int requestsBefore = OMDBStub.requestCount();
+            ExecutorService executor = Executors.newFixedThreadPool(callers);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Movie>> results = new ArrayList<>();
+
+            //When
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return movieService.saveByTitle("Shared Import Title");
+                }));
+            }
+            start.countDown();
+            Movie first = results.get(0).get(10, TimeUnit.SECONDS);
+
+            //Then
+            for (Future<Movie> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, OMDBStub.requestCount() - requestsBefore);
+            assertEquals(1, movieRepository.count());
+
+            //ClenUp
+            executor.shutdown();
+            movieRepository.deleteAll();
+        }
     }
 
     @DisplayName("findByRating - movie does not exists in the OMDB database")
@@ -376,6 +519,27 @@ class MovieServiceTest {
             //ClenUp
             movieRepository.deleteAll();
         }
+
+        @DisplayName("updateStatus - If-Match with an outdated version is rejected")
+        @Test
+        void updateStatusIfMatch() throws Exception {
+
+            //Given
+            Movie movie = new Movie("Matrix");
+            movie.setStatus(Status.WAITING_LIST);
+            String original = MovieETag.of(movieService.save(movie));
+            String updated = MovieETag.of(movieService.updateStatus("Matrix", "GOOD", original));
+
+            //When & Then
+            assertNotEquals(original, updated);
+            assertThrows(PreconditionFailedException.class, () -> movieService.updateStatus("Matrix", "BAD", original));
+            assertEquals(Status.GOOD, movieService.findByTitle("Matrix").getStatus());
+            assertEquals(Status.BAD, movieService.updateStatus("Matrix", "BAD", "\"0-0\", " + updated).getStatus());
+            assertThrows(PreconditionFailedException.class, () -> movieService.deleteById(movie.getMovieId(), updated));
+
+            //ClenUp
+            movieRepository.deleteAll();
+        }
     }
 
     @Nested
@@ -461,5 +625,382 @@ class MovieServiceTest {
             //ClenUp
             movieRepository.deleteAll();
         }
+
+        @DisplayName("deleteAllByStatus - movies are deleted over several chunks and counted")
+        @Test
+        void deleteAllByStatusInChunks() throws InvalidStatusException {
+            //Given
+            List<Movie> movies = new ArrayList<>();
+            for (int i = 0; i < 2_500; i++) {
+                Movie movie = new Movie("Movie " + i);
+                movie.setStatus(i % 5 == 0 ? Status.GOOD : Status.BAD);
+                movies.add(movie);
+            }
+            movieRepository.saveAll(movies);
+
+            //When
+            long deleted = movieService.deleteAllByStatus("BAD");
+
+            //Then
+            assertEquals(2_000, deleted);
+            assertEquals(500, movieService.findAll().size());
+
+            //ClenUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("submitDeleteAllByStatus - background task reports progress until it completes")
+        @Test
+        void submitDeleteAllByStatus() throws Exception {
+            //Given
+            List<Movie> movies = new ArrayList<>();
+            for (int i = 0; i < 1_500; i++) {
+                Movie movie = new Movie("Movie " + i);
+                movie.setStatus(Status.VERY_BAD);
+                movies.add(movie);
+            }
+            movieRepository.saveAll(movies);
+
+            //When
+            DeletionTaskDto task = movieService.submitDeleteAllByStatus("VERY_BAD");
+            DeletionTaskDto progress = movieService.findDeletionTask(task.getTaskId());
+            for (int i = 0; i < 100 && progress.getFinishedAt() == null; i++) {
+                Thread.sleep(100);
+                progress = movieService.findDeletionTask(task.getTaskId());
+            }
+
+            //Then
+            assertEquals(1_500, task.getTotal());
+            assertEquals("COMPLETED", progress.getStatus());
+            assertEquals(1_500, progress.getDeleted());
+            assertEquals(0, movieService.findAll().size());
+            assertThrows(DeletionTaskNotFoundException.class, () -> movieService.findDeletionTask(-1L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test findDtoPage")
+    class TestFindDtoPage {
+
+        @DisplayName("findDtoPage - walking the pages sorted by year visits every movie once, missing years last")
+        @Test
+        void findDtoPageVisitsEveryMovieOnce() throws InvalidPageRequestException {
+            //Given
+            String[] years = {"1999", null, "1985", "1999", null};
+            for (int i = 0; i < years.length; i++) {
+                Movie movie = new Movie("Movie " + i);
+                movie.setYear(years[i]);
+                movie.setStatus(Status.WAITING_LIST);
+                movieService.save(movie);
+            }
+
+            //When
+            List<String> visitedYears = new ArrayList<>();
+            Set<Long> visitedIds = new HashSet<>();
+            String after = null;
+            do {
+                MoviePageDto page = movieService.findDtoPage("year", after, 2);
+                page.getMovies().forEach(movie -> {
+                    visitedYears.add(movie.getProductionYear());
+                    visitedIds.add(movie.getMovieId());
+                });
+                after = page.getNext();
+            } while (after != null);
+
+            //Then
+            assertEquals(5, visitedIds.size());
+            assertEquals(Arrays.asList("1985", "1999", "1999", null, null), visitedYears);
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("findDtoPage - token from another listing is rejected")
+        @Test
+        void findDtoPageRejectsForeignToken() throws InvalidPageRequestException, InvalidStatusException {
+            //Given
+            for (int i = 0; i < 3; i++) {
+                Movie movie = new Movie("Movie " + i);
+                movie.setStatus(Status.WAITING_LIST);
+                movieService.save(movie);
+            }
+            String after = movieService.findDtoPageByStatus("WAITING_LIST", "id", null, 1).getNext();
+
+            //When & Then
+            assertNotNull(after);
+            assertThrows(InvalidPageRequestException.class, () -> movieService.findDtoPage("id", after, 1));
+            assertThrows(InvalidPageRequestException.class, () -> movieService.findDtoPage("id", "not-a-token", 1));
+            assertThrows(InvalidPageRequestException.class, () -> movieService.findDtoPage("duration", null, 1));
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test streamAll")
+    class TestStreamAll {
+
+        @DisplayName("streamAll - every movie is delivered while at most one is held by the persistence context")
+        @Test
+        void streamAllKeepsPersistenceContextFlat() {
+            //Given
+            for (int i = 0; i < 300; i++) {
+                Movie movie = new Movie("Movie " + i);
+                movie.setStatus(Status.WAITING_LIST);
+                movieService.save(movie);
+            }
+
+            //When
+            List<Integer> managedCounts = new ArrayList<>();
+            movieService.streamAll(movie -> managedCounts.add(entityManager.unwrap(Session.class).getStatistics().getEntityCount()));
+
+            //Then
+            assertEquals(300, managedCounts.size());
+            assertTrue(managedCounts.stream().allMatch(count -> count <= 1));
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test findDtoPageMatching")
+    class TestFindDtoPageMatching {
+
+        @DisplayName("findDtoPageMatching - status, rating, year and duration filters are combined")
+        @Test
+        void findDtoPageMatchingCombinesFilters() throws Exception {
+            //Given
+            Object[][] movies = {
+                    {"Matrix", Status.GOOD, "8.7", "1999", "136 min"},
+                    {"Ender's Game", Status.GOOD, "6.6", "2013", "114 min"},
+                    {"Heat", Status.VERY_GOOD, "8.3", "1995", "170 min"},
+                    {"Speed", Status.BAD, "7.3", "1994", "116 min"},
+                    {"Clerks", Status.GOOD, "7.7", "1994", "92 min"}
+            };
+            for (Object[] row : movies) {
+                Movie movie = new Movie((String) row[0]);
+                movie.setStatus((Status) row[1]);
+                movie.setImdbStatus((String) row[2]);
+                movie.setYear((String) row[3]);
+                movie.setDuration((String) row[4]);
+                movieService.save(movie);
+            }
+
+            //When
+            MoviePageDto page = movieService.findDtoPageMatching(List.of("GOOD", "VERY_GOOD"), "7.5", "9", 1990, 2000, 140,
+                    "title", null, 10);
+
+            //Then
+            assertEquals(List.of("Clerks", "Matrix"), page.getMovies().stream().map(MovieDto::getMovieTitle).toList());
+            assertNull(page.getNext());
+            assertThrows(InvalidQueryException.class, () -> movieService.findDtoPageMatching(null, "8", "7", null, null, null, "id", null, 10));
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test bulk status updates")
+    class TestBulkStatusUpdate {
+
+        private Movie saveMovie(String title, Status status, String rating) {
+            Movie movie = new Movie(title);
+            movie.setStatus(status);
+            movie.setImdbStatus(rating);
+            return movieService.save(movie);
+        }
+
+        @DisplayName("updateStatusByIds - only listed movies not already in the status are counted")
+        @Test
+        void updateStatusByIds() throws Exception {
+            //Given
+            Movie matrix = saveMovie("Matrix", Status.WAITING_LIST, "8.7");
+            Movie heat = saveMovie("Heat", Status.GOOD, "8.3");
+            saveMovie("Speed", Status.WAITING_LIST, "7.3");
+
+            //When
+            BulkUpdateResultDto result = movieService.updateStatusByIds(List.of(matrix.getMovieId(), heat.getMovieId()), "GOOD");
+
+            //Then
+            assertEquals(2, result.getRequested());
+            assertEquals(1, result.getUpdated());
+            assertEquals(2, movieService.findByStatus("GOOD").size());
+            assertEquals(Status.WAITING_LIST, movieService.findByTitle("Speed").getStatus());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("updateStatusByTitles - titles are matched after normalization")
+        @Test
+        void updateStatusByTitles() throws Exception {
+            //Given
+            saveMovie("Matrix", Status.WAITING_LIST, "8.7");
+            saveMovie("Heat", Status.WAITING_LIST, "8.3");
+
+            //When
+            BulkUpdateResultDto result = movieService.updateStatusByTitles(List.of(" MATRIX", "heat", "Not - Matrix"), "VERY_GOOD");
+
+            //Then
+            assertEquals(2, result.getUpdated());
+            assertEquals(2, movieService.findByStatus("VERY_GOOD").size());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+
+        @DisplayName("updateStatusMatching - waiting list movies rated below 5 are regraded in one statement")
+        @Test
+        void updateStatusMatching() throws Exception {
+            //Given
+            saveMovie("Matrix", Status.WAITING_LIST, "8.7");
+            saveMovie("Catwoman", Status.WAITING_LIST, "3.4");
+            saveMovie("Gigli", Status.WAITING_LIST, "2.6");
+            saveMovie("Batman & Robin", Status.GOOD, "3.8");
+
+            //When
+            BulkUpdateResultDto result = movieService.updateStatusMatching(List.of("WAITING_LIST"), null, "4.9", null, null, null, "VERY_BAD");
+
+            //Then
+            assertNull(result.getRequested());
+            assertEquals(2, result.getUpdated());
+            assertEquals(List.of("Catwoman", "Gigli"), movieService.findByStatus("VERY_BAD").stream().map(Movie::getTitle).sorted().toList());
+            assertThrows(InvalidBulkUpdateException.class,
+                    () -> movieService.updateStatusMatching(null, null, null, null, null, null, "VERY_BAD"));
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test entity cache")
+    class TestEntityCache {
+
+        @DisplayName("findById / findByTitle - cached copies follow updates, bulk updates and deletes")
+        @Test
+        void cachedMoviesAreInvalidatedOnWrite() throws Exception {
+            //Given
+            Movie movie = new Movie("Matrix");
+            movie.setStatus(Status.WAITING_LIST);
+            Long movieId = movieService.save(movie).getMovieId();
+            Movie cached = movieService.findById(movieId);
+            cached.setStatus(Status.BAD);
+
+            //When & Then
+            assertNotSame(cached, movieService.findById(movieId));
+            assertEquals(Status.WAITING_LIST, movieService.findByTitle(" matrix ").getStatus());
+
+            movieService.updateStatus("Matrix", "GOOD");
+            assertEquals(Status.GOOD, movieService.findById(movieId).getStatus());
+            assertEquals(Status.GOOD, movieService.findByTitle("Matrix").getStatus());
+
+            movieService.updateStatusByIds(List.of(movieId), "VERY_GOOD");
+            assertEquals(Status.VERY_GOOD, movieService.findByTitle("Matrix").getStatus());
+
+            movieService.deleteById(movieId);
+            assertThrows(MovieNotFoundException.class, () -> movieService.findById(movieId));
+            assertThrows(MovieNotFoundException.class, () -> movieService.findByTitle("Matrix"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test list cache")
+    class TestListCache {
+
+        @DisplayName("listAll / listByStatus - the same result is served until the next write")
+        @Test
+        void listsAreCachedPerCatalogueVersion() throws Exception {
+            //Given
+            Movie movie = new Movie("Matrix");
+            movie.setStatus(Status.WAITING_LIST);
+            movieService.save(movie);
+            CachedMovieList all = movieService.listAll();
+            CachedMovieList waiting = movieService.listByStatus("WAITING_LIST");
+
+            //When & Then
+            assertSame(all, movieService.listAll());
+            assertSame(waiting, movieService.listByStatus("WAITING_LIST"));
+            assertThrows(MovieNotFoundException.class, () -> movieService.listByStatus("GOOD"));
+
+            movieService.updateStatus("Matrix", "GOOD");
+            assertNotSame(all, movieService.listAll());
+            assertTrue(movieService.listAll().getCatalogueVersion() > all.getCatalogueVersion());
+            assertEquals("GOOD", movieService.listByStatus("GOOD").get(0).getStatus());
+            assertThrows(MovieNotFoundException.class, () -> movieService.listByStatus("WAITING_LIST"));
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test DTO projections")
+    class TestProjections {
+
+        @DisplayName("findDtoPage / streamAllDtos - projected rows match the mapped entities and pages")
+        @Test
+        void projectionsMatchEntityReads() throws Exception {
+            //Given
+            String[][] movies = {{"Matrix", "1999", "8.7"}, {"Alien", "1979", "8.5"}, {"Gigli", "2003", "2.6"}, {"Unrated", null, null}};
+            for (String[] values : movies) {
+                Movie movie = new Movie(values[0]);
+                movie.setYear(values[1]);
+                movie.setImdbStatus(values[2]);
+                movie.setStatus(Status.GOOD);
+                movieService.save(movie);
+            }
+
+            //When
+            List<String> titles = new ArrayList<>();
+            MoviePageDto page = movieService.findDtoPage("rating", null, 3);
+            page.getMovies().forEach(movie -> titles.add(movie.getMovieTitle()));
+            String next = page.getNext();
+            page = movieService.findDtoPage("rating", next, 3);
+            page.getMovies().forEach(movie -> titles.add(movie.getMovieTitle()));
+            List<MovieDto> streamed = new ArrayList<>();
+            movieService.streamAllDtos(streamed::add);
+
+            //Then
+            assertEquals(List.of("Gigli", "Alien", "Matrix", "Unrated"), titles);
+            assertNull(page.getNext());
+            assertEquals(PageCursor.after(MovieCriteria.any().key(), MovieSort.RATING,
+                    movieRepository.findPage(MovieCriteria.any(), MovieSort.RATING, null, 3).get(2)).encode(), next);
+            assertEquals(4, streamed.size());
+            assertEquals("GOOD", streamed.get(0).getStatus());
+            assertEquals("8.7", streamed.stream().filter(movie -> movie.getMovieTitle().equals("Matrix")).findFirst().orElseThrow().getRating());
+            assertEquals(2, movieService.listByRating("8").size());
+            assertEquals(4, movieService.listByStatus("GOOD").size());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test searchTitles")
+    class TestSearchTitles {
+
+        @DisplayName("searchTitles - without the title index only prefix matches are found, shortest first")
+        @Test
+        void prefixMatchesWithoutIndex() throws Exception {
+            //Given
+            movieService.save(new Movie("The Matrix Reloaded"));
+            movieService.save(new Movie("The Matrix"));
+            movieService.save(new Movie("Heat"));
+
+            //When
+            List<TitleSearchHit> hits = movieService.searchTitles("the MATRIX", 10);
+
+            //Then
+            assertEquals(List.of("The Matrix", "The Matrix Reloaded"), hits.stream().map(TitleSearchHit::title).toList());
+            assertTrue(movieService.searchTitles("the matirx", 10).isEmpty());
+
+            //CleanUp
+            movieRepository.deleteAll();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,229 @@
+package com.example.movies_selector.service;
+
+import com.example.movies_selector.domain.MovieInfoOMDBDto;
+import com.example.movies_selector.exceptions.OMDBUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OMDBServiceTest {
+
+    private static final AtomicInteger requests = new AtomicInteger();
+
+    private static final HttpServer omdbStub = startStub();
+
+    @Autowired
+    OMDBService omdbService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void omdbProperties(DynamicPropertyRegistry registry) {
+        registry.add("omdb.url", () -> "http://localhost:" + omdbStub.getAddress().getPort() + "/");
+        registry.add("omdb.client.read-timeout", () -> "500ms");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        omdbStub.stop(0);
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                requests.incrementAndGet();
+                String query = exchange.getRequestURI().getQuery();
+                if (query.contains("t=Slow")) {
+                    sleep(2000);
+                }
+                if (query.contains("t=Shared")) {
+                    sleep(200);
+                }
+                String body = query.contains("t=Matrix")
+                        ? "{\"Title\":\"Matrix\",\"Year\":\"1993\",\"imdbRating\":\"7.7\",\"Runtime\":\"60 min\",\"Response\":\"True\"}"
+                        : query.contains("t=Limited")
+                        ? "{\"Response\":\"False\",\"Error\":\"Request limit reached!\"}"
+                        : "{\"Response\":\"False\",\"Error\":\"Movie not found!\"}";
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test getMovieFromOMDB")
+    class TestGetMovieFromOMDB {
+
+        @DisplayName("getMovieFromOMDB - movie exists in the OMDB database")
+        @Test
+        void testGetMovieFromOMDBPositiveOutput() {
+            //When
+            MovieInfoOMDBDto movie = omdbService.getMovieFromOMDB("Matrix");
+
+            //Then
+            assertEquals("True", movie.getResponse());
+            assertEquals("Matrix", movie.getTitle());
+            assertEquals("1993", movie.getYear());
+            assertEquals("7.7", movie.getImdbStatus());
+            assertEquals("60 min", movie.getDuration());
+        }
+
+        @DisplayName("getMovieFromOMDB - movie does not exist in the OMDB database")
+        @Test
+        void testGetMovieFromOMDBNegativeOutput() {
+            //When
+            MovieInfoOMDBDto movie = omdbService.getMovieFromOMDB("CatRunThroughKeyboard");
+
+            //Then
+            assertEquals("False", movie.getResponse());
+            assertNull(movie.getTitle());
+        }
+
+        @DisplayName("getMovieFromOMDB - OMDB does not answer within read timeout")
+        @Test
+        void testGetMovieFromOMDBReadTimeout() {
+            //When & Then
+            assertThrows(OMDBUnavailableException.class, () -> omdbService.getMovieFromOMDB("Slow"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test connection pool")
+    class TestConnectionPool {
+
+        @DisplayName("connection pool - connections are reused and metrics are exposed")
+        @Test
+        void testConnectionPoolMetrics() {
+            //When
+            omdbService.getMovieFromOMDB("Pool test 1");
+            omdbService.getMovieFromOMDB("Pool test 2");
+
+            //Then
+            assertEquals(0.0, meterRegistry.get("omdb.pool.leased").gauge().value());
+            assertEquals(0.0, meterRegistry.get("omdb.pool.pending").gauge().value());
+            assertTrue(meterRegistry.get("omdb.pool.idle").gauge().value() >= 1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Test OMDB cache")
+    class TestOMDBCache {
+
+        @DisplayName("cache - repeated lookup of a found title is served from the cache")
+        @Test
+        void testCachedFoundTitle() {
+            //Given
+            omdbService.getMovieFromOMDB("Matrix");
+            int requestsBefore = requests.get();
+
+            //When
+            MovieInfoOMDBDto movie = omdbService.getMovieFromOMDB("  MATRIX ");
+
+            //Then
+            assertEquals("Matrix", movie.getTitle());
+            assertEquals(requestsBefore, requests.get());
+        }
+
+        @DisplayName("cache - repeated lookup of a not found title is served from the cache")
+        @Test
+        void testCachedNotFoundTitle() {
+            //Given
+            omdbService.getMovieFromOMDB("Not cached yet");
+            int requestsBefore = requests.get();
+
+            //When
+            MovieInfoOMDBDto movie = omdbService.getMovieFromOMDB("not cached yet");
+
+            //Then
+            assertEquals("False", movie.getResponse());
+            assertEquals(requestsBefore, requests.get());
+        }
+
+        @DisplayName("cache - an OMDB error other than not found is not cached and reported as unavailable")
+        @Test
+        void testErrorResponseNotCached() {
+            //Given
+            assertThrows(OMDBUnavailableException.class, () -> omdbService.getMovieFromOMDB("Limited"));
+            int requestsBefore = requests.get();
+
+            //When & Then
+            assertThrows(OMDBUnavailableException.class, () -> omdbService.getMovieFromOMDB("Limited"));
+            assertEquals(requestsBefore + 1, requests.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test lookup coalescing")
+    class TestLookupCoalescing {
+
+        @DisplayName("coalescing - concurrent lookups of the same title share one OMDB call")
+        @Test
+        void testConcurrentLookupsCollapsed() throws Exception {
+            //Given
+            int callers = 8;
+            int requestsBefore = requests.get();
+            ExecutorService executor = Executors.newFixedThreadPool(callers);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<MovieInfoOMDBDto>> results = new ArrayList<>();
+
+            //When
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return omdbService.getMovieFromOMDB("Shared");
+                }));
+            }
+            start.countDown();
+            MovieInfoOMDBDto first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<MovieInfoOMDBDto> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            executor.shutdown();
+
+            //Then
+            assertEquals(requestsBefore + 1, requests.get());
+        }
+    }
+}